@@ -0,0 +1,134 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.exception.ArgumentParseException;
+import com.monst.pluginconfiguration.exception.UnreadableValueException;
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+import com.monst.pluginconfiguration.validation.Bound;
+import com.monst.pluginconfiguration.validation.IntegerValidation;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks loading, converting, validating and parsing a collection of integers with 10, 1k and 100k elements,
+ * both sequentially and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionBenchmark {
+
+    private static final String PATH = "list";
+
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private IntegerList value;
+    private FileConfiguration config;
+    private Object fileData;
+    private List<Integer> loaded;
+    private String input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Integer> elements = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        StringBuilder source = new StringBuilder(PATH).append(":\n");
+        for (Integer element : elements)
+            source.append("- ").append(element).append('\n');
+        Plugin plugin = InMemoryPlugin.create(source.toString());
+        value = new IntegerList(plugin, PATH, parallel);
+        config = plugin.getConfig();
+        fileData = config.get(PATH);
+        loaded = value.get();
+        input = elements.stream().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+
+    @Benchmark
+    public List<Integer> convert() throws ValueOutOfBoundsException, UnreadableValueException {
+        return value.convert(fileData);
+    }
+
+    @Benchmark
+    public List<Integer> validate() {
+        return value.validate(loaded);
+    }
+
+    @Benchmark
+    public List<Integer> load() {
+        return value.load(config, null);
+    }
+
+    @Benchmark
+    public List<Integer> parse() throws ArgumentParseException {
+        return value.parse(input);
+    }
+
+    /**
+     * A list of non-negative integers.
+     */
+    static class IntegerList extends ConfigurationCollection<Integer, List<Integer>> {
+
+        private final boolean parallel;
+
+        IntegerList(Plugin plugin, String path, boolean parallel) {
+            super(plugin, path, new ArrayList<>());
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected List<Integer> createCollection() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        protected Integer parseElement(String input) throws ArgumentParseException {
+            try {
+                return Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                throw new ArgumentParseException("\"" + input + "\" is not an integer.");
+            }
+        }
+
+        @Override
+        protected Integer convertElement(Object o) throws ValueOutOfBoundsException, UnreadableValueException {
+            if (o instanceof Integer)
+                return (Integer) o;
+            return super.convertElement(o);
+        }
+
+        @Override
+        protected Bound<Integer> getElementBound() {
+            return IntegerValidation.positiveOrZero();
+        }
+
+        @Override
+        protected boolean isParallel() {
+            return parallel;
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for a {@link Plugin} whose {@code config.yml} file is kept in memory as YAML text, so that configuration
+ * values can be benchmarked without a server.
+ * {@link Plugin#reloadConfig()} parses the text again, and {@link Plugin#saveConfig()} replaces it.
+ * The plugin is never enabled, so no listeners or tasks are ever registered for it.
+ * <p>A stand-in {@link Server} with a few loaded worlds is installed as well, since worlds can only be parsed from
+ * user input while they are loaded.
+ */
+final class InMemoryPlugin implements InvocationHandler {
+
+    static final List<String> WORLD_NAMES = Collections.unmodifiableList(
+            Arrays.asList("world", "world_nether", "world_the_end"));
+
+    private static final Logger LOGGER = Logger.getLogger("PluginConfigurationBenchmark");
+    private static final PluginDescriptionFile DESCRIPTION =
+            new PluginDescriptionFile("PluginConfigurationBenchmark", "1.0", InMemoryPlugin.class.getName());
+
+    static {
+        installServer();
+    }
+
+    private final Plugin plugin;
+    private final File dataFolder;
+    private volatile String source;
+    private volatile YamlConfiguration config;
+
+    private InMemoryPlugin(String source) {
+        this.plugin = (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[] { Plugin.class }, this);
+        this.dataFolder = new File(System.getProperty("java.io.tmpdir"), "plugin-configuration-benchmark");
+        this.source = source;
+        reloadConfig();
+    }
+
+    /**
+     * Creates a stand-in plugin whose {@code config.yml} file has the specified content.
+     * @param source the content of the {@code config.yml} file as YAML text
+     * @return the plugin
+     */
+    static Plugin create(String source) {
+        return new InMemoryPlugin(source).plugin;
+    }
+
+    /**
+     * Replaces the content of the {@code config.yml} file of a stand-in plugin, as if it had been edited.
+     * The file is not reloaded.
+     * @param plugin a plugin created by {@link #create(String)}
+     * @param source the new content of the {@code config.yml} file as YAML text
+     */
+    static void edit(Plugin plugin, String source) {
+        ((InMemoryPlugin) Proxy.getInvocationHandler(plugin)).source = source;
+    }
+
+    /**
+     * @param plugin a plugin created by {@link #create(String)}
+     * @return the current content of the {@code config.yml} file of the plugin
+     */
+    static String source(Plugin plugin) {
+        return ((InMemoryPlugin) Proxy.getInvocationHandler(plugin)).source;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getConfig":
+                return config;
+            case "reloadConfig":
+                reloadConfig();
+                return null;
+            case "saveConfig":
+                source = config.saveToString();
+                return null;
+            case "saveDefaultConfig":
+                return null;
+            case "getDataFolder":
+                return dataFolder;
+            case "getDescription":
+                return DESCRIPTION;
+            case "getName":
+                return DESCRIPTION.getName();
+            case "getLogger":
+                return LOGGER;
+            case "getServer":
+                return Bukkit.getServer();
+            case "isEnabled":
+            case "isNaggable":
+                return false;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return DESCRIPTION.getName();
+            default:
+                throw new UnsupportedOperationException(method.getName() + " is not supported by the stand-in plugin");
+        }
+    }
+
+    private void reloadConfig() {
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(source);
+        } catch (InvalidConfigurationException e) {
+            throw new IllegalArgumentException("Invalid YAML in the stand-in config.yml", e);
+        }
+        this.config = config;
+    }
+
+    private static void installServer() {
+        if (Bukkit.getServer() != null)
+            return;
+        Map<String, World> worlds = new LinkedHashMap<>();
+        for (String name : WORLD_NAMES)
+            worlds.put(name, proxy(World.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                        return name;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return name.hashCode();
+                    case "toString":
+                        return "World{name=" + name + "}";
+                    default:
+                        throw new UnsupportedOperationException(method.getName() + " is not supported by the stand-in world");
+                }
+            }));
+        Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getLogger":
+                    return LOGGER;
+                case "getName":
+                    return "PluginConfigurationBenchmark";
+                case "getVersion":
+                case "getBukkitVersion":
+                    return "benchmark";
+                case "getWorld":
+                    return args[0] instanceof String ? worlds.get(args[0]) : null;
+                case "getWorlds":
+                    return new ArrayList<>(worlds.values());
+                case "isPrimaryThread":
+                    return true;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PluginConfigurationBenchmark";
+                default:
+                    throw new UnsupportedOperationException(method.getName() + " is not supported by the stand-in server");
+            }
+        }));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+}
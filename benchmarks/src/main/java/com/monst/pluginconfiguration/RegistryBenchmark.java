@@ -0,0 +1,85 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.impl.DoubleConfigurationValue;
+import com.monst.pluginconfiguration.impl.IntegerConfigurationValue;
+import com.monst.pluginconfiguration.impl.StringConfigurationValue;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks full reloads of a registry of integer, double and string values, including parsing the YAML text of the
+ * {@code config.yml} file, which is done by every reload.
+ * Incremental reloads are measured both without any change, and after a single value was edited in the file, as when
+ * the file is edited while the server is running.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+
+    @Param({ "100", "1000" })
+    public int values;
+
+    private Plugin plugin;
+    private ConfigurationRegistry registry;
+    private String[] sources;
+    private int edits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < values; i++) {
+            if (i % 10 == 0)
+                source.append("section-").append(i / 10).append(":\n");
+            source.append("  integer-").append(i).append(": ").append(i).append('\n');
+            source.append("  double-").append(i).append(": ").append(i / 4.0).append('\n');
+            source.append("  string-").append(i).append(": value ").append(i).append('\n');
+        }
+        plugin = InMemoryPlugin.create(source.toString());
+        registry = new ConfigurationRegistry(plugin);
+        for (int i = 0; i < values; i++) {
+            String section = "section-" + (i / 10) + ".";
+            registry.registerAll(
+                    new IntegerConfigurationValue(plugin, section + "integer-" + i, 0),
+                    new DoubleConfigurationValue(plugin, section + "double-" + i, 0.0),
+                    new StringConfigurationValue(plugin, section + "string-" + i, ""));
+        }
+        String loaded = InMemoryPlugin.source(plugin);
+        sources = new String[] { loaded.replace("integer-0: 0\n", "integer-0: -1\n"), loaded };
+        registry.reloadChanged(); // record the current file, so that the first edit changes one value only
+    }
+
+    @Benchmark
+    public boolean reload() {
+        return registry.reload();
+    }
+
+    @Benchmark
+    public Set<String> reloadChanged() {
+        return registry.reloadChanged();
+    }
+
+    @Benchmark
+    public Set<String> reloadChangedAfterEdit() {
+        InMemoryPlugin.edit(plugin, sources[edits++ & 1]); // alternate, so that every reload finds one changed value
+        return registry.reloadChanged();
+    }
+
+}
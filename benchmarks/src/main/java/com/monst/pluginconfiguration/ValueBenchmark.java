@@ -0,0 +1,177 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.exception.ArgumentParseException;
+import com.monst.pluginconfiguration.exception.UnreadableValueException;
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+import com.monst.pluginconfiguration.impl.BigDecimalConfigurationValue;
+import com.monst.pluginconfiguration.impl.BigIntegerConfigurationValue;
+import com.monst.pluginconfiguration.impl.BooleanConfigurationValue;
+import com.monst.pluginconfiguration.impl.CharacterConfigurationValue;
+import com.monst.pluginconfiguration.impl.DoubleConfigurationValue;
+import com.monst.pluginconfiguration.impl.FloatConfigurationValue;
+import com.monst.pluginconfiguration.impl.IntegerConfigurationValue;
+import com.monst.pluginconfiguration.impl.LongConfigurationValue;
+import com.monst.pluginconfiguration.impl.MaterialConfigurationValue;
+import com.monst.pluginconfiguration.impl.PathConfigurationValue;
+import com.monst.pluginconfiguration.impl.ShortConfigurationValue;
+import com.monst.pluginconfiguration.impl.StringConfigurationValue;
+import com.monst.pluginconfiguration.impl.WorldConfigurationValue;
+import com.monst.pluginconfiguration.validation.Bound;
+import com.monst.pluginconfiguration.validation.IntBound;
+import com.monst.pluginconfiguration.validation.IntegerValidation;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the individual stages of loading a single configuration value of every type in the {@code impl} package:
+ * reading the loaded value, parsing user input, converting file data, validating, and loading from a configuration.
+ * <p>The benchmarks live in the package of {@link ConfigurationValue} to reach its protected and package-private stages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueBenchmark {
+
+    private static final String CONFIG =
+            "integer: 42\n" +
+            "bounded-integer: 42\n" +
+            "long: 1234567890123\n" +
+            "short: 7\n" +
+            "double: 3.25\n" +
+            "float: 1.5\n" +
+            "big-integer: '123456789012345678901234567890'\n" +
+            "big-decimal: '3.14159265358979323846'\n" +
+            "boolean: true\n" +
+            "character: x\n" +
+            "string: hello world\n" +
+            "material: diamond_sword\n" +
+            "path: plugins/data/file.txt\n" +
+            "world: world_nether\n";
+
+    @Param({ "integer", "bounded-integer", "long", "short", "double", "float", "big-integer", "big-decimal",
+            "boolean", "character", "string", "material", "path", "world" })
+    public String type;
+
+    private ConfigurationValue<Object> value;
+    private FileConfiguration config;
+    private Object fileData;
+    private Object loaded;
+    private String input;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Plugin plugin = InMemoryPlugin.create(CONFIG);
+        value = (ConfigurationValue<Object>) create(plugin, type);
+        config = plugin.getConfig();
+        fileData = config.get(type);
+        loaded = value.get();
+        input = fileData.toString();
+    }
+
+    private static ConfigurationValue<?> create(Plugin plugin, String type) {
+        switch (type) {
+            case "integer":
+                return new IntegerConfigurationValue(plugin, type, 0);
+            case "bounded-integer":
+                return new BoundedIntegerValue(plugin, type);
+            case "long":
+                return new LongConfigurationValue(plugin, type, 0L);
+            case "short":
+                return new ShortConfigurationValue(plugin, type, (short) 0);
+            case "double":
+                return new DoubleConfigurationValue(plugin, type, 0.0);
+            case "float":
+                return new FloatConfigurationValue(plugin, type, 0.0f);
+            case "big-integer":
+                return new BigIntegerConfigurationValue(plugin, type, BigInteger.ZERO);
+            case "big-decimal":
+                return new BigDecimalConfigurationValue(plugin, type, BigDecimal.ZERO);
+            case "boolean":
+                return new BooleanConfigurationValue(plugin, type, false);
+            case "character":
+                return new CharacterConfigurationValue(plugin, type, 'a');
+            case "string":
+                return new StringConfigurationValue(plugin, type, "");
+            case "material":
+                return new MaterialConfigurationValue(plugin, type, Material.STONE);
+            case "path":
+                return new PathConfigurationValue(plugin, type, Paths.get("plugins"));
+            case "world":
+                return new WorldConfigurationValue(plugin, type, Bukkit.getWorld(InMemoryPlugin.WORLD_NAMES.get(0)));
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        return value.get();
+    }
+
+    @Benchmark
+    public Object parse() throws ArgumentParseException {
+        return value.parse(input);
+    }
+
+    @Benchmark
+    public Object convert() throws ValueOutOfBoundsException, UnreadableValueException {
+        return value.convert(fileData);
+    }
+
+    @Benchmark
+    public Object validate() {
+        return value.validate(loaded);
+    }
+
+    @Benchmark
+    public Object read() throws UnreadableValueException {
+        return value.read(fileData).get();
+    }
+
+    @Benchmark
+    public Object load() {
+        return value.load(config, null);
+    }
+
+    /**
+     * An integer value with a chain of several bounds, to measure the cost of validating against a compiled chain.
+     */
+    static class BoundedIntegerValue extends IntegerConfigurationValue {
+
+        BoundedIntegerValue(Plugin plugin, String path) {
+            super(plugin, path, 0);
+        }
+
+        @Override
+        protected List<Bound<Integer>> getBounds() {
+            return Arrays.asList(IntegerValidation.positiveOrZero(), IntBound.atLeast(10), IntBound.atMost(100));
+        }
+
+    }
+
+}
@@ -0,0 +1,451 @@
+package com.monst.pluginconfiguration.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a final implementation for every interface annotated with {@link GenerateAccessors}.
+ * <p>For an interface {@code ArenaConfig}, the generated class {@code ArenaConfigAccessors} has a constructor taking
+ * the plugin, which loads every value from the plugin's configuration, as well as {@code reload()} and
+ * {@code load(ConfigurationSection)} methods. All values are held in a single immutable holder with one typed field
+ * per value, which is replaced at once whenever the values are loaded.
+ * <p>Values are converted and repaired the same way as by the configuration values of this library: values of a
+ * compatible type are converted, values outside their bounds are clamped, and missing or unreadable values are
+ * replaced by their default. Every repair is written back to the configuration.
+ */
+@SupportedAnnotationTypes({
+        "com.monst.pluginconfiguration.processor.GenerateAccessors",
+        "com.monst.pluginconfiguration.processor.ConfigValue"
+})
+public class AccessorProcessor extends AbstractProcessor {
+
+    /**
+     * Names that cannot be used for accessor methods, since they are used by the generated code: the generated
+     * {@code reload()} method, and the types whose static methods are called while loading, which a local variable of
+     * the same name would obscure. All other identifiers of the generated code contain a {@code $}, which accessor
+     * names must not contain.
+     */
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList(
+            "reload", "Integer", "Long", "Double", "Boolean"));
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateAccessors.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@GenerateAccessors can only be applied to interfaces");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty()) {
+                error(type, "@GenerateAccessors cannot be applied to generic interfaces");
+                continue;
+            }
+            List<Accessor> accessors = collectAccessors(type);
+            if (accessors == null)
+                continue; // errors have been reported
+            try {
+                write(type, accessors);
+            } catch (IOException e) {
+                error(type, "Could not write accessors: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the accessors declared by an interface.
+     * @return the accessors, or null if any of them was invalid
+     */
+    private List<Accessor> collectAccessors(TypeElement type) {
+        List<Accessor> accessors = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)
+                    || method.getEnclosingElement().getKind() != ElementKind.INTERFACE)
+                continue; // default, static and Object methods
+            ConfigValue annotation = method.getAnnotation(ConfigValue.class);
+            String name = method.getSimpleName().toString();
+            if (annotation == null) {
+                error(method, "Method " + name + " must be annotated with @ConfigValue");
+                valid = false;
+                continue;
+            }
+            if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+                error(method, "Method " + name + " must not take any parameters");
+                valid = false;
+                continue;
+            }
+            if (RESERVED_NAMES.contains(name) || name.indexOf('$') >= 0) {
+                error(method, "Method name " + name + " is reserved by the generated code");
+                valid = false;
+                continue;
+            }
+            if (!names.add(name)) {
+                error(method, "Method " + name + " is declared more than once");
+                valid = false;
+                continue;
+            }
+            Kind kind = Kind.of(method.getReturnType());
+            if (kind == null) {
+                error(method, "Method " + name + " must return int, long, double, boolean or String");
+                valid = false;
+                continue;
+            }
+            try {
+                accessors.add(new Accessor(name, kind, annotation));
+            } catch (IllegalArgumentException e) {
+                error(method, e.getMessage());
+                valid = false;
+            }
+        }
+        return valid ? accessors : null;
+    }
+
+    private void write(TypeElement type, List<Accessor> accessors) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String className = type.getAnnotation(GenerateAccessors.class).className();
+        if (className.isEmpty())
+            className = type.getSimpleName() + "Accessors";
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        String interfaceName = type.getQualifiedName().toString();
+
+        StringBuilder out = new StringBuilder();
+        out.append("// Generated by ").append(AccessorProcessor.class.getName()).append("; do not edit.\n");
+        if (!packageName.isEmpty())
+            out.append("package ").append(packageName).append(";\n\n");
+        out.append("import org.bukkit.configuration.ConfigurationSection;\n");
+        out.append("import org.bukkit.plugin.Plugin;\n\n");
+        out.append("/**\n * Generated implementation of {@link ").append(interfaceName).append("}.\n */\n");
+        out.append("public final class ").append(className).append(" implements ").append(interfaceName).append(" {\n\n");
+        out.append("    private final Plugin plugin;\n");
+        out.append("    private volatile $Values $values;\n\n");
+
+        out.append("    /**\n");
+        out.append("     * Creates the accessors and loads every value from the configuration of the plugin.\n");
+        out.append("     * Any repairs are written to the configuration, and must be persisted with {@link Plugin#saveConfig()}.\n");
+        out.append("     * @param plugin the plugin instance\n");
+        out.append("     */\n");
+        out.append("    public ").append(className).append("(Plugin plugin) {\n");
+        out.append("        this.plugin = plugin;\n");
+        out.append("        load(plugin.getConfig());\n");
+        out.append("    }\n\n");
+
+        for (Accessor accessor : accessors) {
+            out.append("    @Override\n");
+            out.append("    public ").append(accessor.kind.javaType).append(' ').append(accessor.name).append("() {\n");
+            out.append("        return $values.").append(accessor.name).append(";\n");
+            out.append("    }\n\n");
+        }
+
+        out.append("    /**\n");
+        out.append("     * Reloads every value from the {@code config.yml} file, and saves the file if any value was repaired.\n");
+        out.append("     * @return true if the configuration was repaired and saved\n");
+        out.append("     */\n");
+        out.append("    public boolean reload() {\n");
+        out.append("        plugin.reloadConfig();\n");
+        out.append("        boolean repaired = load(plugin.getConfig());\n");
+        out.append("        if (repaired)\n");
+        out.append("            plugin.saveConfig();\n");
+        out.append("        return repaired;\n");
+        out.append("    }\n\n");
+
+        out.append("    /**\n");
+        out.append("     * Loads every value from a configuration, and publishes all of them at once.\n");
+        out.append("     * @param $config the configuration to load from, and to write repairs to\n");
+        out.append("     * @return true if any value was missing or invalid, and was repaired in the configuration\n");
+        out.append("     */\n");
+        out.append("    public boolean load(ConfigurationSection $config) {\n");
+        out.append("        boolean $repaired = false;\n");
+        out.append("        boolean $fix = false;\n");
+        out.append("        Object $o;\n");
+        for (Accessor accessor : accessors)
+            accessor.writeLoad(out);
+        out.append("        this.$values = new $Values(");
+        for (int i = 0; i < accessors.size(); i++)
+            out.append(i == 0 ? "" : ", ").append(accessors.get(i).name);
+        out.append(");\n");
+        out.append("        return $repaired;\n");
+        out.append("    }\n\n");
+
+        out.append("    private static final class $Values {\n");
+        for (Accessor accessor : accessors)
+            out.append("        private final ").append(accessor.kind.javaType).append(' ').append(accessor.name).append(";\n");
+        out.append("\n        private $Values(");
+        for (int i = 0; i < accessors.size(); i++) {
+            Accessor accessor = accessors.get(i);
+            out.append(i == 0 ? "" : ", ").append(accessor.kind.javaType).append(' ').append(accessor.name);
+        }
+        out.append(") {\n");
+        for (Accessor accessor : accessors)
+            out.append("            this.").append(accessor.name).append(" = ").append(accessor.name).append(";\n");
+        out.append("        }\n");
+        out.append("    }\n\n");
+        out.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * The supported types of configuration values.
+     */
+    private enum Kind {
+
+        INT("int", true) {
+            @Override
+            String literal(String value) {
+                return Integer.toString(Integer.parseInt(value.trim()));
+            }
+
+            @Override
+            void writeConversion(StringBuilder out, String name) {
+                out.append("        if ($o instanceof Integer)\n");
+                out.append("            ").append(name).append(" = (Integer) $o;\n");
+                out.append("        else {\n");
+                out.append("            if ($o instanceof Double)\n");
+                out.append("                ").append(name).append(" = ((Double) $o).intValue();\n");
+                writeParse(out, name, "Integer.parseInt");
+            }
+        },
+
+        LONG("long", true) {
+            @Override
+            String literal(String value) {
+                return Long.parseLong(value.trim()) + "L";
+            }
+
+            @Override
+            void writeConversion(StringBuilder out, String name) {
+                out.append("        if ($o instanceof Integer || $o instanceof Long)\n");
+                out.append("            ").append(name).append(" = ((Number) $o).longValue();\n");
+                out.append("        else {\n");
+                out.append("            if ($o instanceof Double)\n");
+                out.append("                ").append(name).append(" = ((Double) $o).longValue();\n");
+                writeParse(out, name, "Long.parseLong");
+            }
+        },
+
+        DOUBLE("double", true) {
+            @Override
+            String literal(String value) {
+                double d = Double.parseDouble(value.trim());
+                if (Double.isNaN(d) || Double.isInfinite(d))
+                    throw new NumberFormatException();
+                return Double.toString(d);
+            }
+
+            @Override
+            void writeConversion(StringBuilder out, String name) {
+                out.append("        if ($o instanceof Double || $o instanceof Integer)\n");
+                out.append("            ").append(name).append(" = ((Number) $o).doubleValue();\n");
+                out.append("        else {\n");
+                out.append("            if ($o instanceof Number)\n");
+                out.append("                ").append(name).append(" = ((Number) $o).doubleValue();\n");
+                writeParse(out, name, "Double.parseDouble");
+            }
+        },
+
+        BOOLEAN("boolean", false) {
+            @Override
+            String literal(String value) {
+                if (value.isEmpty() || value.equalsIgnoreCase("false"))
+                    return "false";
+                if (value.equalsIgnoreCase("true"))
+                    return "true";
+                throw new IllegalArgumentException();
+            }
+
+            @Override
+            void writeConversion(StringBuilder out, String name) {
+                out.append("        if ($o instanceof Boolean)\n");
+                out.append("            ").append(name).append(" = (Boolean) $o;\n");
+                out.append("        else {\n");
+                out.append("            if ($o != null && (\"true\".equalsIgnoreCase($o.toString()) || \"false\".equalsIgnoreCase($o.toString())))\n");
+                out.append("                ").append(name).append(" = Boolean.parseBoolean($o.toString());\n");
+                out.append("            $fix = true;\n");
+                out.append("        }\n");
+            }
+        },
+
+        STRING("String", false) {
+            @Override
+            String literal(String value) {
+                StringBuilder literal = new StringBuilder("\"");
+                for (char c : value.toCharArray()) {
+                    if (c == '"' || c == '\\')
+                        literal.append('\\').append(c);
+                    else if (c >= 0x20 && c < 0x7F)
+                        literal.append(c);
+                    else if (c < 0x80) // unicode escapes of line terminators would end the literal
+                        literal.append(String.format("\\%03o", (int) c));
+                    else
+                        literal.append(String.format("\\u%04x", (int) c));
+                }
+                return literal.append('"').toString();
+            }
+
+            @Override
+            void writeConversion(StringBuilder out, String name) {
+                out.append("        if ($o != null)\n");
+                out.append("            ").append(name).append(" = $o.toString();\n");
+                out.append("        else\n");
+                out.append("            $fix = true;\n");
+            }
+        };
+
+        private final String javaType;
+        private final boolean numeric;
+
+        Kind(String javaType, boolean numeric) {
+            this.javaType = javaType;
+            this.numeric = numeric;
+        }
+
+        static Kind of(TypeMirror type) {
+            switch (type.getKind()) {
+                case INT:
+                    return INT;
+                case LONG:
+                    return LONG;
+                case DOUBLE:
+                    return DOUBLE;
+                case BOOLEAN:
+                    return BOOLEAN;
+                case DECLARED:
+                    return type.toString().equals("java.lang.String") ? STRING : null;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Converts a value as written in the annotation to a Java literal of this type.
+         * @throws IllegalArgumentException if the value is not valid for this type
+         */
+        abstract String literal(String value);
+
+        /**
+         * Writes the statements converting {@code $o} into the local variable of an accessor, setting {@code $fix}
+         * if the value had to be repaired.
+         */
+        abstract void writeConversion(StringBuilder out, String name);
+
+        private static void writeParse(StringBuilder out, String name, String parseMethod) {
+            out.append("            else if ($o != null)\n");
+            out.append("                try {\n");
+            out.append("                    ").append(name).append(" = ").append(parseMethod).append("($o.toString());\n");
+            out.append("                } catch (NumberFormatException $e) {\n");
+            out.append("                    // unreadable; use the default\n");
+            out.append("                }\n");
+            out.append("            $fix = true;\n");
+            out.append("        }\n");
+        }
+
+    }
+
+    /**
+     * A configuration value declared by an interface method.
+     */
+    private static final class Accessor {
+
+        private final String name;
+        private final Kind kind;
+        private final String path;
+        private final String defaultLiteral;
+        private final String minLiteral;
+        private final String maxLiteral;
+
+        Accessor(String name, Kind kind, ConfigValue annotation) {
+            this.name = name;
+            this.kind = kind;
+            if (annotation.path().isEmpty())
+                throw new IllegalArgumentException("The path of " + name + " must not be empty");
+            this.path = Kind.STRING.literal(annotation.path());
+            String defaultValue = annotation.defaultValue();
+            if (defaultValue.isEmpty() && kind.numeric)
+                defaultValue = "0";
+            this.defaultLiteral = literal(defaultValue, "default value");
+            this.minLiteral = bound(annotation.min(), "min");
+            this.maxLiteral = bound(annotation.max(), "max");
+            if (minLiteral != null && compare(defaultValue, annotation.min()) < 0
+                    || maxLiteral != null && compare(defaultValue, annotation.max()) > 0)
+                throw new IllegalArgumentException("The default value of " + name + " is outside its bounds");
+        }
+
+        private String bound(String value, String description) {
+            if (value.isEmpty())
+                return null;
+            if (!kind.numeric)
+                throw new IllegalArgumentException("Only numeric values can have a " + description + " bound");
+            return literal(value, description);
+        }
+
+        private String literal(String value, String description) {
+            try {
+                return kind.literal(value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + description + " for " + kind.javaType + " " + name
+                        + ": \"" + value + "\"");
+            }
+        }
+
+        private static int compare(String a, String b) {
+            return new java.math.BigDecimal(a.trim()).compareTo(new java.math.BigDecimal(b.trim()));
+        }
+
+        void writeLoad(StringBuilder out) {
+            out.append('\n');
+            out.append("        ").append(kind.javaType).append(' ').append(name).append(" = ").append(defaultLiteral).append(";\n");
+            out.append("        $o = $config.get(").append(path).append(");\n");
+            kind.writeConversion(out, name);
+            if (minLiteral != null) {
+                out.append("        if (").append(name).append(" < ").append(minLiteral).append(") {\n");
+                out.append("            ").append(name).append(" = ").append(minLiteral).append(";\n");
+                out.append("            $fix = true;\n");
+                out.append("        }\n");
+            }
+            if (maxLiteral != null) { // negated, so that NaN is clamped as well
+                out.append("        if (!(").append(name).append(" <= ").append(maxLiteral).append(")) {\n");
+                out.append("            ").append(name).append(" = ").append(maxLiteral).append(";\n");
+                out.append("            $fix = true;\n");
+                out.append("        }\n");
+            }
+            out.append("        if ($fix) {\n");
+            out.append("            $config.set(").append(path).append(", ").append(name).append(");\n");
+            out.append("            $repaired = true;\n");
+            out.append("            $fix = false;\n");
+            out.append("        }\n");
+        }
+
+    }
+
+}
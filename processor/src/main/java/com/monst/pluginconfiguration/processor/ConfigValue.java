@@ -0,0 +1,37 @@
+package com.monst.pluginconfiguration.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a configuration value in an interface annotated with {@link GenerateAccessors}.
+ * The default value and the bounds are written as they would be in the {@code config.yml} file, and are checked
+ * against the return type of the method at compile time.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface ConfigValue {
+
+    /**
+     * @return the path in the {@code config.yml} file (subsections are demarcated with .)
+     */
+    String path();
+
+    /**
+     * @return the default value; by default, {@code 0}, {@code false} or the empty string
+     */
+    String defaultValue() default "";
+
+    /**
+     * @return the inclusive lower bound of a numeric value, or the empty string for none
+     */
+    String min() default "";
+
+    /**
+     * @return the inclusive upper bound of a numeric value, or the empty string for none
+     */
+    String max() default "";
+
+}
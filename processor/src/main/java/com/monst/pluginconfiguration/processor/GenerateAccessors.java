@@ -0,0 +1,27 @@
+package com.monst.pluginconfiguration.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface whose methods declare configuration values, for which an implementation is generated at
+ * compile time by the {@link AccessorProcessor}.
+ * Every abstract method of the interface must take no parameters, return {@code int}, {@code long}, {@code double},
+ * {@code boolean} or {@link String}, and be annotated with {@link ConfigValue}. Method names must be unique, must not
+ * contain {@code $}, and must not be {@code reload}, {@code Integer}, {@code Long}, {@code Double} or {@code Boolean},
+ * which are used by the generated code.
+ * <p>The generated class is final, reads every value into a plain typed field, and inlines the conversion and bounds
+ * of each value, so that no reflection, virtual dispatch or per-value setup is involved at runtime.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateAccessors {
+
+    /**
+     * @return the simple name of the generated class; by default, the name of the interface followed by {@code Accessors}
+     */
+    String className() default "";
+
+}
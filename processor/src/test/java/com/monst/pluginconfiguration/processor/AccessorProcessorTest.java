@@ -0,0 +1,258 @@
+package com.monst.pluginconfiguration.processor;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiles interfaces annotated with {@link GenerateAccessors} with the {@link AccessorProcessor}, and checks both the
+ * reported errors and the behavior of the generated classes.
+ */
+class AccessorProcessorTest {
+
+    @Test
+    void generatesAccessorsForEverySupportedType() throws Exception {
+        Compilation compilation = compile("test.Settings",
+                "package test;",
+                "import com.monst.pluginconfiguration.processor.*;",
+                "@GenerateAccessors",
+                "public interface Settings {",
+                "    @ConfigValue(path = \"limits.players\", defaultValue = \"10\", min = \"1\", max = \"100\") int players();",
+                "    @ConfigValue(path = \"limits.memory\", defaultValue = \"1024\") long memory();",
+                "    @ConfigValue(path = \"chance\", defaultValue = \"0.5\", min = \"0\", max = \"1\") double chance();",
+                "    @ConfigValue(path = \"enabled\", defaultValue = \"true\") boolean enabled();",
+                "    @ConfigValue(path = \"greeting\", defaultValue = \"Hello \\\"world\\\"\") String greeting();",
+                "}");
+        compilation.assertSucceeded();
+
+        YamlConfiguration config = new YamlConfiguration();
+        Object accessors = compilation.newAccessors("test.SettingsAccessors", config);
+        assertEquals(10, compilation.get(accessors, "players"));
+        assertEquals(1024L, compilation.get(accessors, "memory"));
+        assertEquals(0.5, compilation.get(accessors, "chance"));
+        assertEquals(true, compilation.get(accessors, "enabled"));
+        assertEquals("Hello \"world\"", compilation.get(accessors, "greeting"));
+        assertEquals(10, config.get("limits.players"), "missing values are written back");
+
+        config.set("limits.players", "42");
+        config.set("limits.memory", 2048);
+        config.set("chance", 3);
+        config.set("enabled", "FALSE");
+        config.set("greeting", 7);
+        assertTrue(compilation.load(accessors, config));
+        assertEquals(42, compilation.get(accessors, "players"));
+        assertEquals(2048L, compilation.get(accessors, "memory"));
+        assertEquals(1.0, compilation.get(accessors, "chance"), "values above the max are clamped");
+        assertEquals(false, compilation.get(accessors, "enabled"));
+        assertEquals("7", compilation.get(accessors, "greeting"));
+        assertEquals(42, config.get("limits.players"), "converted values are written back");
+        assertEquals(1.0, config.get("chance"));
+
+        config.set("limits.players", "many");
+        assertTrue(compilation.load(accessors, config));
+        assertEquals(10, compilation.get(accessors, "players"), "unreadable values are replaced by the default");
+        assertFalse(compilation.load(accessors, config), "nothing is repaired twice");
+    }
+
+    @Test
+    void acceptsNamesOfLocalsInTheGeneratedCode() {
+        compile("test.Names",
+                "package test;",
+                "import com.monst.pluginconfiguration.processor.*;",
+                "@GenerateAccessors",
+                "public interface Names {",
+                "    @ConfigValue(path = \"a\") int e();",
+                "    @ConfigValue(path = \"b\") long config();",
+                "    @ConfigValue(path = \"c\") double values();",
+                "    @ConfigValue(path = \"d\") boolean Values();",
+                "    @ConfigValue(path = \"e\") String plugin();",
+                "    @ConfigValue(path = \"f\") int load();",
+                "    @ConfigValue(path = \"g\") int o();",
+                "    @ConfigValue(path = \"h\") int fix();",
+                "    @ConfigValue(path = \"i\") int repaired();",
+                "    @ConfigValue(path = \"j\") String String();",
+                "    @ConfigValue(path = \"k\") double Number();",
+                "}").assertSucceeded();
+    }
+
+    @Test
+    void rejectsReservedNames() {
+        for (String name : Arrays.asList("reload", "Integer", "Long", "Double", "Boolean", "with$dollar")) {
+            compile("test.Reserved",
+                    "package test;",
+                    "import com.monst.pluginconfiguration.processor.*;",
+                    "@GenerateAccessors",
+                    "public interface Reserved {",
+                    "    @ConfigValue(path = \"value\") boolean " + name + "();",
+                    "}").assertFailedWith("Method name " + name + " is reserved by the generated code");
+        }
+    }
+
+    @Test
+    void rejectsDuplicateNames() {
+        compile("test.Both",
+                "package test;",
+                "import com.monst.pluginconfiguration.processor.*;",
+                "@GenerateAccessors",
+                "public interface Both extends First, Second {}",
+                "interface First { @ConfigValue(path = \"first.size\") int size(); }",
+                "interface Second { @ConfigValue(path = \"second.size\") int size(); }").assertFailedWith("Method size is declared more than once");
+    }
+
+    @Test
+    void rejectsUnsupportedReturnTypes() {
+        for (String type : Arrays.asList("Integer", "float", "short", "char", "Object", "java.util.List<String>")) {
+            compile("test.Unsupported",
+                    "package test;",
+                    "import com.monst.pluginconfiguration.processor.*;",
+                    "@GenerateAccessors",
+                    "public interface Unsupported {",
+                    "    @ConfigValue(path = \"value\") " + type + " value();",
+                    "}").assertFailedWith("Method value must return int, long, double, boolean or String");
+        }
+    }
+
+    @Test
+    void rejectsInvalidDeclarations() {
+        compile("test.Invalid",
+                "package test;",
+                "import com.monst.pluginconfiguration.processor.*;",
+                "@GenerateAccessors",
+                "public interface Invalid {",
+                "    int unannotated();",
+                "    @ConfigValue(path = \"a\") int withParameter(int i);",
+                "    @ConfigValue(path = \"b\", defaultValue = \"x\") int badDefault();",
+                "    @ConfigValue(path = \"c\", defaultValue = \"5\", min = \"10\") int outOfBounds();",
+                "    @ConfigValue(path = \"d\", max = \"1\") String boundedString();",
+                "}").assertFailedWith(
+                        "Method unannotated must be annotated with @ConfigValue",
+                        "Method withParameter must not take any parameters",
+                        "Invalid default value for int badDefault: \"x\"",
+                        "The default value of outOfBounds is outside its bounds",
+                        "Only numeric values can have a max bound");
+    }
+
+    /**
+     * Compiles a single source file with the accessor processor.
+     * @param className the qualified name of the class declared by the source
+     * @param lines the lines of the source
+     * @return the result of the compilation
+     */
+    private static Compilation compile(String className, String... lines) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try {
+            Path output = Files.createTempDirectory("accessors");
+            StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null);
+            files.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output.toFile()));
+            files.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output.toFile()));
+            files.setLocation(StandardLocation.CLASS_PATH, Arrays.asList(
+                    locationOf(GenerateAccessors.class), locationOf(ConfigurationSection.class)));
+            JavaFileObject source = new SimpleJavaFileObject(
+                    URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return String.join("\n", lines);
+                }
+            };
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, null, null,
+                    Collections.singletonList(source));
+            task.setProcessors(Collections.singletonList(new AccessorProcessor()));
+            boolean success = task.call();
+            files.close();
+            return new Compilation(success, diagnostics.getDiagnostics(), output);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static File locationOf(Class<?> type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class Compilation {
+
+        private final boolean success;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private final Path output;
+
+        private Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path output) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+            this.output = output;
+        }
+
+        private List<String> errors() {
+            return diagnostics.stream()
+                    .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                    .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                    .collect(Collectors.toList());
+        }
+
+        void assertSucceeded() {
+            assertTrue(success, "Compilation failed: " + errors());
+        }
+
+        void assertFailedWith(String... messages) {
+            assertFalse(success, "Compilation succeeded");
+            List<String> errors = errors();
+            for (String message : messages)
+                assertTrue(errors.contains(message), "Missing error \"" + message + "\" in " + errors);
+            assertEquals(messages.length, errors.size(), "Unexpected errors in " + errors);
+        }
+
+        Object newAccessors(String className, FileConfiguration config) throws Exception {
+            Plugin plugin = (Plugin) java.lang.reflect.Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Plugin.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("getConfig"))
+                            return config;
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+            URLClassLoader loader = new URLClassLoader(new URL[] { output.toUri().toURL() }, getClass().getClassLoader());
+            return loader.loadClass(className).getConstructor(Plugin.class).newInstance(plugin);
+        }
+
+        Object get(Object accessors, String name) throws Exception {
+            return accessors.getClass().getMethod(name).invoke(accessors);
+        }
+
+        boolean load(Object accessors, ConfigurationSection config) throws Exception {
+            Method load = accessors.getClass().getMethod("load", ConfigurationSection.class);
+            return (Boolean) load.invoke(accessors, config);
+        }
+
+    }
+
+}
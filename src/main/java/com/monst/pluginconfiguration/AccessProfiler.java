@@ -0,0 +1,229 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * A sampling profiler of the reads of registered configuration values through {@link ConfigurationValue#get()}.
+ * It finds the values that are read most often, e.g. in hot loops or event handlers, and by which threads, so that
+ * they can be cached in a local or a primitive field.
+ * <p>Only one in every {@link #getSampleInterval() sample interval} reads is recorded, chosen at random; the number of
+ * reads of a value is estimated from its samples. Samples are counted with striped counters, so that reads never
+ * contend with each other. While the profiler is not {@link ConfigurationRegistry#enableAccessProfiler(int, long, int)
+ * enabled}, reads are not affected beyond a single null check.
+ */
+public final class AccessProfiler {
+
+    private static final int THREADS_PER_ENTRY = 3;
+
+    private final ConfigurationRegistry registry;
+    private final int sampleInterval;
+    private volatile Counter[] counters = new Counter[0];
+    private volatile long windowStart = System.nanoTime();
+    private BukkitTask reportTask;
+
+    AccessProfiler(ConfigurationRegistry registry, int sampleInterval) {
+        if (sampleInterval < 1)
+            throw new IllegalArgumentException("Sample interval must be positive");
+        this.registry = registry;
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Records a read of a registered configuration value, if it is chosen as a sample.
+     * @param index the index of the configuration value in the registry
+     */
+    void sample(int index) {
+        if (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0)
+            return;
+        Counter[] counters = this.counters;
+        Counter counter = index < counters.length ? counters[index] : null;
+        if (counter == null)
+            counter = createCounter(index);
+        counter.record(Thread.currentThread().getName());
+    }
+
+    private synchronized Counter createCounter(int index) {
+        Counter[] counters = this.counters;
+        if (index < counters.length && counters[index] != null)
+            return counters[index];
+        counters = Arrays.copyOf(counters, Math.max(counters.length, index + 1));
+        Counter counter = counters[index] = new Counter();
+        this.counters = counters; // publish a new array, so that readers never see a partially filled slot
+        return counter;
+    }
+
+    /**
+     * Gets the most read configuration values since the profiler was enabled or last {@link #reset()}.
+     * @param limit the maximum number of values to return
+     * @return the most read values, in descending order of reads
+     */
+    public List<Entry> top(int limit) {
+        List<ConfigurationValue<?>> values = registry.getValues();
+        Counter[] counters = this.counters;
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < counters.length && i < values.size(); i++) {
+            if (counters[i] == null)
+                continue;
+            Entry entry = counters[i].toEntry(values.get(i).getPath(), sampleInterval);
+            if (entry.getReads() > 0)
+                entries.add(entry);
+        }
+        entries.sort(Comparator.comparingLong(Entry::getReads).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Formats a report of the most read configuration values since the profiler was enabled or last {@link #reset()}.
+     * @param limit the maximum number of values to include
+     * @return a human-readable report
+     */
+    public String report(int limit) {
+        double seconds = (System.nanoTime() - windowStart) / (double) TimeUnit.SECONDS.toNanos(1);
+        StringBuilder report = new StringBuilder(String.format("Most read configuration values over the last %.1fs "
+                + "(sampling 1 in %d reads):", seconds, sampleInterval));
+        List<Entry> entries = top(limit);
+        if (entries.isEmpty())
+            report.append(" none");
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            report.append(String.format("%n  %d. %s: ~%d reads (%.0f/s) by ", i + 1, entry.getPath(), entry.getReads(),
+                    seconds > 0 ? entry.getReads() / seconds : 0));
+            int shown = 0;
+            for (Map.Entry<String, Long> thread : entry.getReadsByThread().entrySet()) {
+                if (shown++ == THREADS_PER_ENTRY) {
+                    report.append(", ...");
+                    break;
+                }
+                report.append(shown > 1 ? ", " : "").append(thread.getKey())
+                        .append(String.format(" (%.0f%%)", 100.0 * thread.getValue() / entry.getReads()));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Discards all samples recorded so far, and starts a new reporting window.
+     */
+    public void reset() {
+        for (Counter counter : counters)
+            if (counter != null)
+                counter.reset();
+        windowStart = System.nanoTime();
+    }
+
+    /**
+     * @return the number of reads per recorded sample
+     */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Starts logging a report of the top values periodically, after which the samples are reset.
+     */
+    synchronized void startReporting(long periodTicks, int limit) {
+        if (periodTicks <= 0 || !registry.getPlugin().isEnabled())
+            return;
+        reportTask = Bukkit.getScheduler().runTaskTimerAsynchronously(registry.getPlugin(), () -> {
+            registry.getPlugin().getLogger().log(Level.INFO, report(limit));
+            reset();
+        }, periodTicks, periodTicks);
+    }
+
+    synchronized void stopReporting() {
+        if (reportTask != null) {
+            reportTask.cancel();
+            reportTask = null;
+        }
+    }
+
+    /**
+     * The sampled reads of a single configuration value.
+     */
+    private static final class Counter {
+
+        private final LongAdder samples = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> samplesByThread = new ConcurrentHashMap<>();
+
+        void record(String thread) {
+            samples.increment();
+            LongAdder threadSamples = samplesByThread.get(thread);
+            if (threadSamples == null)
+                threadSamples = samplesByThread.computeIfAbsent(thread, t -> new LongAdder());
+            threadSamples.increment();
+        }
+
+        Entry toEntry(String path, int sampleInterval) {
+            List<Map.Entry<String, Long>> threads = new ArrayList<>();
+            for (Map.Entry<String, LongAdder> thread : samplesByThread.entrySet())
+                threads.add(new AbstractMap.SimpleImmutableEntry<>(thread.getKey(),
+                        thread.getValue().sum() * sampleInterval));
+            threads.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            Map<String, Long> readsByThread = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> thread : threads)
+                readsByThread.put(thread.getKey(), thread.getValue());
+            return new Entry(path, samples.sum() * sampleInterval, Collections.unmodifiableMap(readsByThread));
+        }
+
+        void reset() {
+            samples.reset();
+            samplesByThread.clear();
+        }
+
+    }
+
+    /**
+     * The estimated reads of a single configuration value.
+     */
+    public static final class Entry {
+
+        private final String path;
+        private final long reads;
+        private final Map<String, Long> readsByThread;
+
+        Entry(String path, long reads, Map<String, Long> readsByThread) {
+            this.path = path;
+            this.reads = reads;
+            this.readsByThread = readsByThread;
+        }
+
+        /**
+         * @return the path of the configuration value
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the estimated number of reads
+         */
+        public long getReads() {
+            return reads;
+        }
+
+        /**
+         * @return the estimated number of reads by the name of the reading thread, in descending order of reads
+         */
+        public Map<String, Long> getReadsByThread() {
+            return readsByThread;
+        }
+
+    }
+
+}
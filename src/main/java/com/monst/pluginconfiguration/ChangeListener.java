@@ -0,0 +1,18 @@
+package com.monst.pluginconfiguration;
+
+/**
+ * A listener that is notified whenever the value of a {@link ConfigurationValue} changes,
+ * whether it was set, reset, or reloaded.
+ * @param <T> the type of the value
+ */
+@FunctionalInterface
+public interface ChangeListener<T> {
+
+    /**
+     * Called after the value of a configuration value has changed.
+     * @param oldValue the previous value
+     * @param newValue the new value
+     */
+    void onChange(T oldValue, T newValue);
+
+}
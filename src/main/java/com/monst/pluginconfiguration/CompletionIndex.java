@@ -0,0 +1,141 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable prefix index over a domain of tab-completion candidates.
+ * Candidates are kept sorted case-insensitively, so that all candidates starting with a prefix form a contiguous
+ * range; {@link #complete(String, int)} finds the start of that range by binary search and returns the first matches
+ * from it, without scanning or copying the rest of the candidates.
+ * <p>Indexes over fixed domains, such as {@link #materials() materials} and {@link #ofEnum(Class) enum constants},
+ * are built once and shared.
+ */
+public final class CompletionIndex {
+
+    /**
+     * The number of completions returned by {@link #complete(String)}.
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    private static final ClassValue<CompletionIndex> ENUM_INDEXES = new ClassValue<CompletionIndex>() {
+        @Override
+        protected CompletionIndex computeValue(Class<?> type) {
+            List<String> names = new ArrayList<>();
+            for (Object constant : type.getEnumConstants())
+                names.add(((Enum<?>) constant).name().toLowerCase(Locale.ROOT));
+            return of(names);
+        }
+    };
+
+    private static class Materials {
+        static final CompletionIndex INDEX;
+        static {
+            List<String> names = new ArrayList<>();
+            for (Material material : Material.values())
+                if (!material.isLegacy())
+                    names.add(material.name().toLowerCase(Locale.ROOT));
+            INDEX = of(names);
+        }
+    }
+
+    private final String[] candidates;
+
+    private CompletionIndex(String[] candidates) {
+        this.candidates = candidates;
+    }
+
+    /**
+     * Creates an index over the provided candidates.
+     * @param candidates the candidates, in any order
+     * @return a new index
+     */
+    public static CompletionIndex of(Collection<String> candidates) {
+        String[] sorted = candidates.toArray(new String[0]);
+        Arrays.sort(sorted, ORDER);
+        return new CompletionIndex(sorted);
+    }
+
+    /**
+     * Returns the shared index over the lower-case names of the constants of an enum.
+     * @param type the enum type
+     * @return the index of the enum
+     */
+    public static CompletionIndex ofEnum(Class<? extends Enum<?>> type) {
+        return ENUM_INDEXES.get(type);
+    }
+
+    /**
+     * Returns the shared index over the lower-case names of all non-legacy {@link Material}s.
+     * @return the index of materials
+     */
+    public static CompletionIndex materials() {
+        return Materials.INDEX;
+    }
+
+    /**
+     * Finds up to {@value #DEFAULT_LIMIT} candidates starting with a prefix, ignoring case.
+     * @param prefix the typed prefix
+     * @return the matching candidates in case-insensitive order
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Finds the first candidates starting with a prefix, ignoring case.
+     * @param prefix the typed prefix
+     * @param limit the maximum number of candidates to return
+     * @return the matching candidates in case-insensitive order
+     */
+    public List<String> complete(String prefix, int limit) {
+        int low = 0;
+        int high = candidates.length;
+        while (low < high) { // find the first candidate not less than the prefix
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(candidates[mid], prefix) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        int end = low;
+        while (end < candidates.length && end - low < limit && startsWith(candidates[end], prefix))
+            end++;
+        if (end == low)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(candidates).subList(low, end));
+    }
+
+    /**
+     * @return the number of candidates in this index
+     */
+    public int size() {
+        return candidates.length;
+    }
+
+    /**
+     * Checks for a prefix under the same case folding as {@link String#CASE_INSENSITIVE_ORDER}.
+     */
+    private static boolean startsWith(String candidate, String prefix) {
+        if (candidate.length() < prefix.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++)
+            if (fold(candidate.charAt(i)) != fold(prefix.charAt(i)))
+                return false;
+        return true;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+}
@@ -0,0 +1,374 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+
+/**
+ * An optional binary sidecar cache of already validated configuration values, which allows a plugin to skip parsing
+ * the {@code config.yml} file and validating its values on startup when the file has not changed.
+ * <p>The cache is stored next to the {@code config.yml} file, and is keyed by a hash of the file's content and the
+ * version of the plugin. Each entry is additionally keyed by the type and default value of its configuration value.
+ * While a cache is open, every {@link ConfigurationValue} of the plugin that is created with a matching entry restores
+ * its value directly from the cache, without touching {@link Plugin#getConfig()} or evaluating its bounds; the cached
+ * data is only {@link ConfigurationValue#convert converted}, which for collections still validates their elements.
+ * Values without a matching entry, and values that had no file data when the cache was stored, e.g. worlds that were
+ * not loaded, are loaded as usual.
+ * <p>Usage:
+ * <pre>{@code
+ * ConfigurationCache cache = ConfigurationCache.open(plugin);
+ * // create and register the configuration values
+ * cache.store(registry); // after any repairs have been saved
+ * }</pre>
+ * <p>Since bounds are not evaluated for restored values, bounds must only depend on the code of the plugin, which is
+ * covered by the plugin version; not on other state.
+ */
+public final class ConfigurationCache {
+
+    private static final String FILE_NAME = "config.yml.cache";
+    private static final int MAGIC = 0x50434643; // "PCFC"
+    private static final byte FORMAT_VERSION = 2;
+
+    private static final byte NULL = 0, STRING = 1, INTEGER = 2, LONG = 3, BIG_INTEGER = 4, DOUBLE = 5, BOOLEAN = 6,
+            LIST = 7, ABSENT = 8;
+
+    /**
+     * Marks an entry of a value without file data, which is loaded as usual rather than restored as null.
+     */
+    private static final Object NO_DATA = new Object();
+
+    /**
+     * Returned by {@link #restore(ConfigurationValue)} if there is no matching entry for a configuration value.
+     */
+    static final Object MISS = new Object();
+
+    private static final Map<Plugin, ConfigurationCache> OPEN = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Plugin plugin;
+    private final Path configFile;
+    private final Path cacheFile;
+    private final Map<String, Entry> entries;
+    private int hits;
+    private int matches;
+
+    private static final class Entry {
+        private final String type;
+        private final Object defaultData;
+        private final Object data;
+
+        private Entry(String type, Object defaultData, Object data) {
+            this.type = type;
+            this.defaultData = defaultData;
+            this.data = data;
+        }
+    }
+
+    private ConfigurationCache(Plugin plugin, Path configFile, Path cacheFile, Map<String, Entry> entries) {
+        this.plugin = plugin;
+        this.configFile = configFile;
+        this.cacheFile = cacheFile;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens the cache of a plugin, so that configuration values created afterwards are restored from it.
+     * If the cache is missing, outdated or unreadable, it is opened empty and every value is loaded as usual.
+     * @param plugin the plugin
+     * @return the open cache
+     */
+    public static ConfigurationCache open(Plugin plugin) {
+        Path configFile = new File(plugin.getDataFolder(), "config.yml").toPath();
+        Path cacheFile = configFile.resolveSibling(FILE_NAME);
+        byte[] configHash = hash(configFile, plugin.getDescription().getVersion());
+        Map<String, Entry> entries = new HashMap<>();
+        if (configHash != null) {
+            try {
+                entries = read(cacheFile, configHash);
+            } catch (NoSuchFileException e) {
+                // no cache yet
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not read " + FILE_NAME + ", ignoring it", e);
+            }
+        }
+        ConfigurationCache cache = new ConfigurationCache(plugin, configFile, cacheFile, entries);
+        OPEN.put(plugin, cache);
+        return cache;
+    }
+
+    /**
+     * @return the currently open cache of the plugin, or null if there is none
+     */
+    static ConfigurationCache getOpenCache(Plugin plugin) {
+        return OPEN.get(plugin);
+    }
+
+    /**
+     * Looks up the cached file data of a configuration value.
+     * @param value the configuration value
+     * @return the validated file data of the value, or {@link #MISS} if there is no matching entry, or the value had
+     * no file data when it was cached
+     */
+    synchronized Object restore(ConfigurationValue<?> value) {
+        Entry entry = entries.get(value.getPath());
+        if (entry == null || !entry.type.equals(value.getClass().getName()))
+            return MISS;
+        Object defaultData = fileDataOf(value, value.getDefaultValue());
+        if (!isEncodable(defaultData) || !Objects.equals(entry.defaultData, canonical(defaultData)))
+            return MISS;
+        matches++;
+        if (entry.data == NO_DATA)
+            return MISS;
+        hits++;
+        return entry.data;
+    }
+
+    /**
+     * Closes this cache, and writes the current values of all values of a registry to the cache file, unless every
+     * one of them was restored from the cache already.
+     * This should be called after any repairs made while loading have been saved to the {@code config.yml} file,
+     * since the cache is keyed by the content of the file as it is when this method is called.
+     * @param registry the registry of all configuration values of the plugin
+     * @throws IOException if the cache file could not be written
+     */
+    public void store(ConfigurationRegistry registry) throws IOException {
+        OPEN.remove(plugin, this);
+        List<ConfigurationValue<?>> values = registry.getValues();
+        synchronized (this) {
+            if (matches == values.size() && entries.size() == values.size())
+                return; // the cache is up to date
+        }
+        byte[] hash = hash(configFile, plugin.getDescription().getVersion());
+        if (hash == null)
+            return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.write(hash);
+            List<ConfigurationValue<?>> cacheable = new ArrayList<>();
+            for (ConfigurationValue<?> value : values)
+                if (value.peek() != ConfigurationValue.UNLOADED // lazy values are not loaded just to be cached
+                        && isEncodable(fileDataOf(value, value.get()))
+                        && isEncodable(fileDataOf(value, value.getDefaultValue())))
+                    cacheable.add(value);
+            out.writeInt(cacheable.size());
+            for (ConfigurationValue<?> value : cacheable) {
+                writeString(out, value.getPath());
+                writeString(out, value.getClass().getName());
+                encode(out, fileDataOf(value, value.getDefaultValue()));
+                Object data = fileDataOf(value, value.get());
+                if (data == null)
+                    out.writeByte(ABSENT);
+                else
+                    encode(out, data);
+            }
+        }
+        Path temp = cacheFile.resolveSibling(FILE_NAME + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        try {
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the number of configuration values that were restored from this cache so far
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    private static Map<String, Entry> read(Path cacheFile, byte[] configHash) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION)
+                return entries;
+            byte[] hash = new byte[configHash.length];
+            in.readFully(hash);
+            if (!Arrays.equals(hash, configHash))
+                return entries; // the file or the plugin has changed since
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = readString(in);
+                String type = readString(in);
+                Object defaultData = decode(in);
+                entries.put(path, new Entry(type, defaultData, decode(in)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Computes a hash over the content of the {@code config.yml} file and the version of the plugin.
+     * @return the hash, or null if the file could not be read
+     */
+    private static byte[] hash(Path configFile, String pluginVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Files.readAllBytes(configFile));
+            digest.update(String.valueOf(pluginVersion).getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Object fileDataOf(ConfigurationValue<T> value, Object t) {
+        return t == null ? null : value.convertToFileData((T) t);
+    }
+
+    private static boolean isEncodable(Object data) {
+        if (data == null || data instanceof String || data instanceof Character || data instanceof Boolean
+                || data instanceof Byte || data instanceof Short || data instanceof Integer || data instanceof Long
+                || data instanceof BigInteger || data instanceof Float || data instanceof Double)
+            return true;
+        if (data instanceof Collection) {
+            for (Object element : (Collection<?>) data)
+                if (!isEncodable(element))
+                    return false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return encodable file data in the form it takes after being encoded and decoded again
+     */
+    private static Object canonical(Object data) {
+        if (data == null || data instanceof String || data instanceof Boolean)
+            return data;
+        if (data instanceof Character)
+            return data.toString();
+        if (data instanceof Float || data instanceof Double)
+            return ((Number) data).doubleValue();
+        if (data instanceof Collection) {
+            List<Object> list = new ArrayList<>(((Collection<?>) data).size());
+            for (Object element : (Collection<?>) data)
+                list.add(canonical(element));
+            return list;
+        }
+        BigInteger number = data instanceof BigInteger ? (BigInteger) data : BigInteger.valueOf(((Number) data).longValue());
+        if (number.bitLength() < Integer.SIZE)
+            return number.intValue();
+        if (number.bitLength() < Long.SIZE)
+            return number.longValue();
+        return number;
+    }
+
+    /**
+     * Encodes file data in the form it would take after being written to and read from the {@code config.yml} file,
+     * e.g. all floating point numbers as doubles and all collections as lists.
+     */
+    private static void encode(DataOutputStream out, Object data) throws IOException {
+        if (data == null) {
+            out.writeByte(NULL);
+        } else if (data instanceof String || data instanceof Character) {
+            out.writeByte(STRING);
+            writeString(out, data.toString());
+        } else if (data instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) data);
+        } else if (data instanceof Float || data instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) data).doubleValue());
+        } else if (data instanceof Collection) {
+            Collection<?> collection = (Collection<?>) data;
+            out.writeByte(LIST);
+            out.writeInt(collection.size());
+            for (Object element : collection)
+                encode(out, element);
+        } else {
+            BigInteger number = data instanceof BigInteger ? (BigInteger) data : BigInteger.valueOf(((Number) data).longValue());
+            if (number.bitLength() < Integer.SIZE) {
+                out.writeByte(INTEGER);
+                out.writeInt(number.intValue());
+            } else if (number.bitLength() < Long.SIZE) {
+                out.writeByte(LONG);
+                out.writeLong(number.longValue());
+            } else {
+                out.writeByte(BIG_INTEGER);
+                byte[] bytes = number.toByteArray();
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Object decode(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case ABSENT:
+                return NO_DATA;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case LIST:
+                int size = in.readInt();
+                if (size < 0 || size > in.available())
+                    throw new IOException("Invalid list size " + size);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    list.add(decode(in));
+                return list;
+            default:
+                throw new IOException("Unknown tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available())
+            throw new IOException("Invalid length " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.monst.pluginconfiguration;
+
+/**
+ * A change of the value of a single {@link ConfigurationValue}.
+ * @param <T> the type of the value
+ */
+public final class ConfigurationChange<T> {
+
+    private final ConfigurationValue<T> value;
+    private final T oldValue;
+    private final T newValue;
+
+    ConfigurationChange(ConfigurationValue<T> value, T oldValue, T newValue) {
+        this.value = value;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * @return the configuration value that changed
+     */
+    public ConfigurationValue<T> getValue() {
+        return value;
+    }
+
+    /**
+     * @return the path of the configuration value that changed
+     */
+    public String getPath() {
+        return value.getPath();
+    }
+
+    /**
+     * @return the previous value
+     */
+    public T getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return the new value
+     */
+    public T getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Notifies the listeners of the configuration value of this change.
+     */
+    void notifyListeners() {
+        value.notifyListeners(oldValue, newValue);
+    }
+
+}
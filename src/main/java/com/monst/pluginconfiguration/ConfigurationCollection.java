@@ -4,12 +4,30 @@ import com.monst.pluginconfiguration.exception.ArgumentParseException;
 import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import com.monst.pluginconfiguration.validation.Bound;
+import com.monst.pluginconfiguration.validation.RepairFlag;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.yaml.snakeyaml.error.YAMLException;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * A configuration value with multiple elements, always stored as a list in the config.yml.
@@ -18,6 +36,22 @@ import java.util.stream.Collectors;
  */
 public abstract class ConfigurationCollection<E, T extends Collection<E>> extends ConfigurationValue<T> {
 
+    /**
+     * The minimum number of elements for a collection to be converted in parallel, if enabled.
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Marks elements that could not be converted while converting in parallel.
+     */
+    private static final Object UNREADABLE = new Object();
+
+    private static final String DEFAULT_SPLIT_REGEX = "\\s*(,|\\s)\\s*";
+
+    private volatile Bound<E> compiledElementBound;
+    private volatile InputTokenizer tokenizer;
+    private volatile Derived<CompletionIndex> elementCompletions;
+
     public ConfigurationCollection(Plugin plugin, String path, T defaultValue) {
         super(plugin, path, defaultValue);
     }
@@ -25,6 +59,8 @@ public abstract class ConfigurationCollection<E, T extends Collection<E>> extend
     /**
      * Parses a collection of values from a user-entered string.
      * The individual elements may be separated by spaces, commas, or both.
+     * Each element is passed to {@link #parseElement(String)} as soon as the {@link #getTokenizer() tokenizer}
+     * finds it.
      * @param input a string representation of the desired object
      * @return the parsed elements in a new collection
      * @throws ArgumentParseException if an element could not be parsed
@@ -32,18 +68,37 @@ public abstract class ConfigurationCollection<E, T extends Collection<E>> extend
     @Override
     protected T parse(String input) throws ArgumentParseException {
         T collection = createCollection();
-        for (String s : input.split(getInputSplitRegex()))
-            collection.add(parseElement(s));
+        getTokenizer().tokenize(input, element -> collection.add(parseElement(element)));
         return collection;
     }
 
     /**
      * Returns a regular expression String which is used to split the user input into individual elements.
-     * By default, this method returns {@code "\\s*,?\\s*"}, which splits by commas, or spaces, or both.
+     * By default, this method returns {@code "\\s*(,|\\s)\\s*"}, which splits by commas, or spaces, or both.
+     * <p>This method is only called once, when the {@link #getTokenizer() tokenizer} is first needed.
      * @return a regular expression to split user input for parsing
      */
     protected String getInputSplitRegex() {
-        return "\\s*(,|\\s)\\s*"; // the user input may be separated by commas or spaces or both
+        return DEFAULT_SPLIT_REGEX; // the user input may be separated by commas or spaces or both
+    }
+
+    /**
+     * Returns the {@link InputTokenizer} which is used to split the user input into individual elements.
+     * By default, the input is split by the regular expression returned by {@link #getInputSplitRegex()}, which is
+     * compiled only once. The default expression is matched by {@link InputTokenizer#commasOrWhitespace()} instead,
+     * without any regular expression at all.
+     * @return a tokenizer to split user input for parsing
+     */
+    protected InputTokenizer getTokenizer() {
+        InputTokenizer tokenizer = this.tokenizer;
+        if (tokenizer == null) {
+            String regex = getInputSplitRegex();
+            tokenizer = DEFAULT_SPLIT_REGEX.equals(regex)
+                    ? InputTokenizer.commasOrWhitespace()
+                    : InputTokenizer.splittingOn(regex);
+            this.tokenizer = tokenizer;
+        }
+        return tokenizer;
     }
 
     /**
@@ -62,29 +117,160 @@ public abstract class ConfigurationCollection<E, T extends Collection<E>> extend
      * @throws ValueOutOfBoundsException if there was a problem with at least one value in the configuration file.
      */
     protected T convert(Object o) throws ValueOutOfBoundsException, UnreadableValueException {
-        boolean problemFound = false;
         List<?> list = (o instanceof List) ? (List<?>) o : Collections.singletonList(o);
+        if (isParallel() && list.size() >= PARALLEL_THRESHOLD)
+            return convertElementsInParallel(list instanceof RandomAccess ? list : new ArrayList<>(list));
+        return convertElements(list.iterator());
+    }
+
+    /**
+     * Converts and validates elements one at a time, adding each straight to a new collection.
+     * @param elements the elements stored in the configuration file
+     * @return a collection of converted and validated elements
+     * @throws ValueOutOfBoundsException if there was a problem with at least one element
+     * @see #convert(Object)
+     */
+    T convertElements(Iterator<?> elements) throws ValueOutOfBoundsException {
+        boolean problemFound = false;
+        RepairFlag repaired = new RepairFlag();
+        Bound<E> elementBound = getCompiledElementBound();
         T collection = createCollection();
-        for (Object element : list) {
+        while (elements.hasNext()) {
+            E e;
             try {
-                E e = new ExceptionBuffer<>(element)
-                        .convert(this::convertElement)
-                        .validate(getElementBounds())
-                        .getOrThrow();
-                if (!collection.add(e))
-                    problemFound = true;
-            } catch (ValueOutOfBoundsException e) {
-                collection.add(e.getReplacement());
+                e = convertElement(elements.next());
+            } catch (ValueOutOfBoundsException ex) {
+                e = ex.getReplacement();
                 problemFound = true;
-            } catch (UnreadableValueException e) {
+            } catch (UnreadableValueException ex) {
                 problemFound = true;
+                continue;
             }
+            if (!collection.add(enforce(e, elementBound, repaired)))
+                problemFound = true;
+        }
+        if (problemFound || repaired.isRaised())
+            throw new ValueOutOfBoundsException(collection);
+        return collection;
+    }
+
+    /**
+     * Converts and validates the elements of a large list across the common {@link ForkJoinPool}, then adds them to
+     * a new collection in encounter order on the calling thread.
+     * Problems are recorded per element and merged exactly as in {@link #convertElements(Iterator)}.
+     * @param list the elements stored in the configuration file
+     * @return a collection of converted and validated elements
+     * @throws ValueOutOfBoundsException if there was a problem with at least one element
+     */
+    @SuppressWarnings("unchecked")
+    private T convertElementsInParallel(List<?> list) throws ValueOutOfBoundsException {
+        Bound<E> elementBound = getCompiledElementBound();
+        Object[] converted = new Object[list.size()];
+        boolean[] repaired = new boolean[converted.length];
+        IntStream.range(0, converted.length).parallel().forEach(i -> {
+            E e;
+            try {
+                e = convertElement(list.get(i));
+            } catch (ValueOutOfBoundsException ex) {
+                e = ex.getReplacement();
+                repaired[i] = true;
+            } catch (UnreadableValueException ex) {
+                converted[i] = UNREADABLE;
+                return;
+            }
+            RepairFlag flag = new RepairFlag();
+            converted[i] = enforce(e, elementBound, flag);
+            if (flag.isRaised())
+                repaired[i] = true;
+        });
+        boolean problemFound = false;
+        T collection = createCollection();
+        for (int i = 0; i < converted.length; i++) {
+            if (converted[i] == UNREADABLE) {
+                problemFound = true;
+                continue;
+            }
+            if (repaired[i])
+                problemFound = true;
+            if (!collection.add((E) converted[i]))
+                problemFound = true;
         }
         if (problemFound)
             throw new ValueOutOfBoundsException(collection);
         return collection;
     }
 
+    /**
+     * Reloads this configuration collection by streaming its elements directly from the {@code config.yml} file.
+     * Each element is converted, validated and added to the new collection as soon as it is read, so that neither
+     * the whole list nor the rest of the document are ever held in memory, and the peak memory of a reload is bounded
+     * by the size of the resulting collection. This is best suited for very large lists.
+     * Elements are converted with {@link #convertElement(Object)}; an override of {@link #convert(Object)} is not used.
+     * <p>Unlike {@link #reload()}, this method reads the file itself rather than the plugin {@link FileConfiguration},
+     * so {@link Plugin#reloadConfig()} need not be called beforehand. Any repairs are written to the plugin
+     * {@link FileConfiguration} as usual, and must be persisted with {@link Plugin#saveConfig()}.
+     * <p>If the list uses a feature of YAML that cannot be streamed, such as an alias, a tag or a nested collection,
+     * the whole file is loaded instead, and the value is loaded from it exactly as {@link #reload()} would.
+     * <p>The memory bound above therefore only holds if the list can be streamed and needs no repair. Writing a repair
+     * calls {@link Plugin#getConfig()}, which loads and keeps the whole file, including the list, if the plugin has not
+     * loaded it yet; and loading the whole file for a list that cannot be streamed holds the whole list as well.
+     * If the file is malformed, a warning is logged and the current value is kept; nothing is written.
+     * @throws IOException if the file could not be read
+     */
+    public void reloadStreaming() throws IOException {
+        compileBounds();
+        Path file = new File(getPlugin().getDataFolder(), "config.yml").toPath();
+        ConfigurationEvents.Load event = ConfigurationEvents.beginLoad();
+        T value = getDefaultValue();
+        boolean repaired = true;
+        ConfigurationMetrics.Outcome outcome = ConfigurationMetrics.Outcome.MISSING;
+        try (YamlSequenceReader elements = YamlSequenceReader.open(file, getPath())) {
+            if (elements != null) { // otherwise, the value is not present in the file
+                try {
+                    value = convertElements(elements);
+                    repaired = false;
+                } catch (ValueOutOfBoundsException e) {
+                    value = e.getReplacement();
+                }
+                RepairFlag flag = new RepairFlag();
+                value = enforce(value, getCompiledBound(), flag);
+                if (flag.isRaised())
+                    repaired = true;
+                outcome = repaired ? ConfigurationMetrics.Outcome.REPAIRED : ConfigurationMetrics.Outcome.LOADED;
+            }
+        } catch (YamlSequenceReader.UnstreamableException e) {
+            reloadFromFile(file);
+            return;
+        } catch (YAMLException e) {
+            getPlugin().getLogger().log(Level.WARNING, "Could not stream " + getPath() + " from config.yml", e);
+            return;
+        }
+        recordLoad(outcome);
+        Object loaded = outcome == ConfigurationMetrics.Outcome.MISSING ? null : value;
+        ConfigurationEvents.commitLoad(event, getPath(), loaded, outcome);
+        reloadWith(value, repaired);
+    }
+
+    /**
+     * Reloads this configuration collection from the whole {@code config.yml} file, for lists that cannot be streamed.
+     * Any repairs are written to the plugin {@link FileConfiguration}, just like {@link #reloadStreaming()} does;
+     * otherwise, the plugin {@link FileConfiguration} is not touched.
+     * @param file the configuration file
+     * @throws IOException if the file could not be read
+     */
+    private void reloadFromFile(Path file) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.load(file.toFile());
+        } catch (InvalidConfigurationException e) {
+            getPlugin().getLogger().log(Level.WARNING, "Could not load " + getPath() + " from config.yml", e);
+            return;
+        }
+        Set<String> changedPaths = new HashSet<>();
+        T value = load(config, config.get(getPath(), null), changedPaths);
+        reloadWith(value, !changedPaths.isEmpty());
+    }
+
     /**
      * Validates every element of the provided collection against this configuration value's element bounds,
      * as well as the collection itself against this configuration value's bounds.
@@ -94,22 +280,52 @@ public abstract class ConfigurationCollection<E, T extends Collection<E>> extend
      * @return the input, or a validated replacement
      */
     @Override
+    @SuppressWarnings("unchecked")
     protected T validate(T collection) {
+        Bound<E> elementBound = getCompiledElementBound();
         T validated = createCollection();
-        for (E element : collection) {
-            try {
-                validate(element, getElementBounds());
-                validated.add(element);
-            } catch (ValueOutOfBoundsException e) {
-                validated.add(e.getReplacement());
-            }
+        if (isParallel() && collection.size() >= PARALLEL_THRESHOLD) {
+            Object[] elements = collection.toArray();
+            Arrays.parallelSetAll(elements, i -> enforce((E) elements[i], elementBound));
+            for (Object element : elements)
+                validated.add((E) element);
+        } else {
+            for (E element : collection)
+                validated.add(enforce(element, elementBound));
         }
-        try {
-            validate(validated, getBounds());
-            return validated;
-        } catch (ValueOutOfBoundsException e) {
-            return e.getReplacement();
+        return enforce(validated, getCompiledBound());
+    }
+
+    /**
+     * Returns whether large collections should be converted and validated in parallel.
+     * If true, the elements of collections with at least 1024 elements are converted with
+     * {@link #convertElement(Object)} and checked against the {@link #getElementBounds() element bounds} across the
+     * common {@link ForkJoinPool}, which can speed up loading when elements are costly to parse.
+     * The resulting collection is always built in encounter order, on the calling thread.
+     * <p>By default, this method returns false. Only override it if {@link #convertElement(Object)} and the element
+     * bounds are safe to call from multiple threads at once.
+     * @return true if large collections should be converted in parallel
+     */
+    protected boolean isParallel() {
+        return false;
+    }
+
+    @Override
+    void compileBounds() {
+        compiledElementBound = Bound.allOf(getElementBounds());
+        super.compileBounds();
+    }
+
+    /**
+     * @return the compiled element bound of this configuration collection, compiling it first if necessary
+     */
+    Bound<E> getCompiledElementBound() {
+        Bound<E> bound = compiledElementBound;
+        if (bound == null) {
+            compileBounds();
+            bound = compiledElementBound;
         }
+        return bound;
     }
 
     /**
@@ -151,6 +367,8 @@ public abstract class ConfigurationCollection<E, T extends Collection<E>> extend
      * If an element is found to be outside one or more of these bounds, it will be replaced.
      * By default, this method returns a singleton list of the Bound provided by {@link #getElementBound()}.
      * Therefore, if the collection elements only require a single Bound, override that method instead.
+     * <p>Like {@link #getBounds()}, this method is not called on every validation, but only when the bounds are
+     * compiled.
      * @return a list of Bounds for each collection element
      */
     protected List<Bound<E>> getElementBounds() {
@@ -168,6 +386,60 @@ public abstract class ConfigurationCollection<E, T extends Collection<E>> extend
         return Bound.alwaysPasses();
     }
 
+    /**
+     * Gets a list of tab-completions to be shown to a player typing in a command.
+     * By default, this returns the same completions as any other configuration value. If this collection provides an
+     * {@link #getElementCompletionIndex() element completion index}, the element being typed after the last comma is
+     * completed from that index instead, keeping the elements typed before it.
+     * @param player the player typing in the command
+     * @param args the arguments the player has typed so far
+     * @return a list of tab-completions
+     */
+    @Override
+    public List<String> getTabCompletions(Player player, String[] args) {
+        String typed = args.length == 0 ? "" : args[args.length - 1];
+        int elementStart = typed.lastIndexOf(',') + 1; // elements typed before in the same argument are kept
+        if (elementStart == typed.length())
+            return super.getTabCompletions(player, args);
+        CompletionIndex index = getElementCompletionIndex();
+        if (index == null)
+            return super.getTabCompletions(player, args);
+        List<String> completions = index.complete(typed.substring(elementStart));
+        if (elementStart == 0)
+            return completions;
+        String head = typed.substring(0, elementStart);
+        return completions.stream().map(head::concat).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the index from which the element being typed is completed, e.g. {@link CompletionIndex#materials()} for a
+     * collection of materials. This method is called on every tab-completion, so the index should be shared or cached.
+     * By default, this method returns null, and elements are not completed individually.
+     * @return the index of element completions, or null
+     * @see #getCurrentElementIndex()
+     */
+    protected CompletionIndex getElementCompletionIndex() {
+        return null;
+    }
+
+    /**
+     * Gets an index over the {@link #formatElement(Object) formatted} elements of the current value, which is cached
+     * until the value changes. Subclasses may return this from {@link #getElementCompletionIndex()} to complete
+     * elements that are already present, e.g. for commands that remove elements.
+     * @return the index of the current elements
+     */
+    protected final CompletionIndex getCurrentElementIndex() {
+        T value = get();
+        Derived<CompletionIndex> completions = elementCompletions;
+        if (completions == null || !completions.isDerivedFrom(value)) {
+            List<String> elements = new ArrayList<>(value.size());
+            for (E element : value)
+                elements.add(formatElement(element));
+            elementCompletions = completions = new Derived<>(value, CompletionIndex.of(elements));
+        }
+        return completions.get();
+    }
+
     @Override
     protected String format(T collection) {
         return collection.stream().map(this::formatElement).collect(Collectors.joining(", ")); // do not include brackets
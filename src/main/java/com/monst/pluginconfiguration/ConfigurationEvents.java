@@ -0,0 +1,206 @@
+package com.monst.pluginconfiguration;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+
+/**
+ * Java Flight Recorder events for the phases of loading and saving configuration values, so that the cost of a
+ * reload can be attributed to individual values in a recording.
+ * <p>Events are only committed while a recording has them enabled; otherwise, each phase costs little more than
+ * allocating an event, which the JIT compiler usually eliminates. On a JVM without Flight Recorder,
+ * {@link #AVAILABLE} is false and the event classes are never loaded.
+ * <p>The event classes must only be referenced through the static methods of this class, whose parameter and return
+ * types are the exact event types, so that they are not loaded when verifying their callers.
+ */
+final class ConfigurationEvents {
+
+    /**
+     * Whether the Flight Recorder API is present in this JVM.
+     */
+    static final boolean AVAILABLE = isAvailable();
+
+    private static final String CATEGORY = "Plugin Configuration";
+
+    private ConfigurationEvents() {}
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ConfigurationEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Name("com.monst.pluginconfiguration.Load")
+    @Label("Configuration Value Load")
+    @Description("Loading a configuration value from the configuration, including converting, validating and repairing it")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Load extends Event {
+        @Label("Path")
+        String path;
+        @Label("Element Count")
+        @Description("The number of elements in the stored data, or 0 if it is missing")
+        int elementCount;
+        @Label("Outcome")
+        @Description("ok, repaired or defaulted")
+        String outcome;
+    }
+
+    @Name("com.monst.pluginconfiguration.Read")
+    @Label("Configuration Value Read")
+    @Description("Fetching the stored data of a configuration value from the configuration")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Read extends Event {
+        @Label("Path")
+        String path;
+        @Label("Element Count")
+        @Description("The number of elements in the stored data, or 0 if it is missing")
+        int elementCount;
+    }
+
+    @Name("com.monst.pluginconfiguration.Convert")
+    @Label("Configuration Value Conversion")
+    @Description("Converting the stored data of a configuration value into a value")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Convert extends Event {
+        @Label("Path")
+        String path;
+        @Label("Element Count")
+        int elementCount;
+        @Label("Outcome")
+        @Description("ok, repaired or unreadable")
+        String outcome;
+    }
+
+    @Name("com.monst.pluginconfiguration.Validate")
+    @Label("Configuration Value Validation")
+    @Description("Enforcing the bounds of a configuration value")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Validate extends Event {
+        @Label("Path")
+        String path;
+        @Label("Element Count")
+        int elementCount;
+        @Label("Outcome")
+        @Description("ok or repaired")
+        String outcome;
+    }
+
+    @Name("com.monst.pluginconfiguration.Save")
+    @Label("Configuration Save")
+    @Description("Saving the config.yml file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Save extends Event {
+        @Label("Trigger")
+        @Description("What caused the save: reload, set or write-behind")
+        String trigger;
+        @Label("Change Count")
+        @Description("The number of values that were changed or repaired")
+        int changeCount;
+    }
+
+    static Load beginLoad() {
+        if (!AVAILABLE)
+            return null;
+        Load event = new Load();
+        event.begin();
+        return event;
+    }
+
+    static void commitLoad(Load event, String path, Object data, ConfigurationMetrics.Outcome outcome) {
+        if (event == null || !event.shouldCommit())
+            return;
+        event.path = path;
+        event.elementCount = elementCount(data);
+        event.outcome = outcome.getLabel();
+        event.commit();
+    }
+
+    static Read beginRead() {
+        if (!AVAILABLE)
+            return null;
+        Read event = new Read();
+        event.begin();
+        return event;
+    }
+
+    static void commitRead(Read event, String path, Object data) {
+        if (event == null || !event.shouldCommit())
+            return;
+        event.path = path;
+        event.elementCount = elementCount(data);
+        event.commit();
+    }
+
+    static Convert beginConvert() {
+        if (!AVAILABLE)
+            return null;
+        Convert event = new Convert();
+        event.begin();
+        return event;
+    }
+
+    static void commitConvert(Convert event, String path, Object data, String outcome) {
+        if (event == null || !event.shouldCommit())
+            return;
+        event.path = path;
+        event.elementCount = elementCount(data);
+        event.outcome = outcome;
+        event.commit();
+    }
+
+    static Validate beginValidate() {
+        if (!AVAILABLE)
+            return null;
+        Validate event = new Validate();
+        event.begin();
+        return event;
+    }
+
+    static void commitValidate(Validate event, String path, Object value, boolean repaired) {
+        if (event == null || !event.shouldCommit())
+            return;
+        event.path = path;
+        event.elementCount = elementCount(value);
+        event.outcome = repaired ? "repaired" : "ok";
+        event.commit();
+    }
+
+    static Save beginSave() {
+        if (!AVAILABLE)
+            return null;
+        Save event = new Save();
+        event.begin();
+        return event;
+    }
+
+    static void commitSave(Save event, String trigger, int changeCount) {
+        if (event == null || !event.shouldCommit())
+            return;
+        event.trigger = trigger;
+        event.changeCount = changeCount;
+        event.commit();
+    }
+
+    /**
+     * @return the number of elements in stored data or a value: the size of a collection, 0 for null, and 1 otherwise
+     */
+    private static int elementCount(Object o) {
+        if (o == null)
+            return 0;
+        return o instanceof Collection ? ((Collection<?>) o).size() : 1;
+    }
+
+}
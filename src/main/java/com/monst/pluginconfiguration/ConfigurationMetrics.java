@@ -0,0 +1,241 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.plugin.Plugin;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Counters and latency histograms of the loads, repairs and saves of the values of a {@link ConfigurationRegistry}.
+ * Metrics are only collected while they are {@link ConfigurationRegistry#enableMetrics() enabled}; until then,
+ * configuration values skip all instrumentation after a single null check.
+ * <p>While enabled, the metrics are exposed through the platform MBean server under the name
+ * {@code com.monst.pluginconfiguration:type=ConfigurationMetrics,plugin=<plugin name>}.
+ * All counters are striped, so that recording never contends between threads.
+ */
+public final class ConfigurationMetrics implements ConfigurationMetricsMXBean {
+
+    /**
+     * The outcome of loading a single configuration value.
+     */
+    enum Outcome {
+        LOADED("ok"), REPAIRED("repaired"), MISSING("defaulted"), UNREADABLE("defaulted");
+
+        private final String label;
+
+        Outcome(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return the outcome as reported in {@link ConfigurationEvents Flight Recorder events}
+         */
+        String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * A phase of loading or saving configuration values whose latency is measured.
+     */
+    enum Phase {
+        READ, CONVERT, VALIDATE, SAVE
+    }
+
+    private static final String DOMAIN = "com.monst.pluginconfiguration";
+
+    private final Plugin plugin;
+    private final ObjectName name;
+    private final LongAdder[] counts = newCounters();
+    private final ConcurrentMap<String, LongAdder[]> countsByPath = new ConcurrentHashMap<>();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Phase.values().length];
+    private volatile long lastReloadNanos = -1;
+
+    ConfigurationMetrics(Plugin plugin) {
+        this.plugin = plugin;
+        this.name = createName(plugin);
+        for (int i = 0; i < latencies.length; i++)
+            latencies[i] = new LatencyHistogram();
+    }
+
+    private static ObjectName createName(Plugin plugin) {
+        try {
+            return new ObjectName(DOMAIN + ":type=ConfigurationMetrics,plugin=" + ObjectName.quote(plugin.getName()));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e); // cannot happen with a quoted value
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[Outcome.values().length];
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = new LongAdder();
+        return counters;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, replacing the metrics of a previous instance of the
+     * same plugin if they were never unregistered. If registration fails, the metrics are still collected.
+     */
+    void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not register configuration metrics with JMX", e);
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they are registered.
+     */
+    void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (InstanceNotFoundException ignored) {
+            // registration failed, or was replaced
+        } catch (JMException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not unregister configuration metrics from JMX", e);
+        }
+    }
+
+    /**
+     * Records the outcome of loading a configuration value.
+     * @param path the path of the value
+     * @param outcome the outcome of the load
+     */
+    void recordLoad(String path, Outcome outcome) {
+        LongAdder[] pathCounts = countsByPath.get(path);
+        if (pathCounts == null)
+            pathCounts = countsByPath.computeIfAbsent(path, p -> newCounters());
+        counts[outcome.ordinal()].increment();
+        pathCounts[outcome.ordinal()].increment();
+    }
+
+    /**
+     * Records the duration of a phase of loading or saving.
+     * @param phase the phase
+     * @param nanos the duration in nanoseconds
+     */
+    void recordLatency(Phase phase, long nanos) {
+        latencies[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the duration of a reload of the whole registry.
+     * @param nanos the duration in nanoseconds
+     */
+    void recordReload(long nanos) {
+        lastReloadNanos = nanos;
+    }
+
+    @Override
+    public long getLoadCount() {
+        long sum = 0;
+        for (LongAdder count : counts)
+            sum += count.sum();
+        return sum;
+    }
+
+    @Override
+    public long getRepairCount() {
+        return counts[Outcome.REPAIRED.ordinal()].sum();
+    }
+
+    @Override
+    public long getDefaultCount() {
+        return counts[Outcome.MISSING.ordinal()].sum() + counts[Outcome.UNREADABLE.ordinal()].sum();
+    }
+
+    @Override
+    public long getUnreadableCount() {
+        return counts[Outcome.UNREADABLE.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getLoadCountByPath() {
+        return countByPath(Outcome.values());
+    }
+
+    @Override
+    public Map<String, Long> getRepairCountByPath() {
+        return countByPath(Outcome.REPAIRED);
+    }
+
+    @Override
+    public Map<String, Long> getDefaultCountByPath() {
+        return countByPath(Outcome.MISSING, Outcome.UNREADABLE);
+    }
+
+    @Override
+    public Map<String, Long> getUnreadableCountByPath() {
+        return countByPath(Outcome.UNREADABLE);
+    }
+
+    /**
+     * Sums the counts of some outcomes by path, leaving out paths where none of the outcomes occurred.
+     */
+    private Map<String, Long> countByPath(Outcome... outcomes) {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder[]> entry : countsByPath.entrySet()) {
+            long sum = 0;
+            for (Outcome outcome : outcomes)
+                sum += entry.getValue()[outcome.ordinal()].sum();
+            if (sum > 0)
+                result.put(entry.getKey(), sum);
+        }
+        return result;
+    }
+
+    @Override
+    public LatencyStatistics getReadLatency() {
+        return latencies[Phase.READ.ordinal()].statistics();
+    }
+
+    @Override
+    public LatencyStatistics getConvertLatency() {
+        return latencies[Phase.CONVERT.ordinal()].statistics();
+    }
+
+    @Override
+    public LatencyStatistics getValidateLatency() {
+        return latencies[Phase.VALIDATE.ordinal()].statistics();
+    }
+
+    @Override
+    public LatencyStatistics getSaveLatency() {
+        return latencies[Phase.SAVE.ordinal()].statistics();
+    }
+
+    @Override
+    public long getLastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder count : counts)
+            count.reset();
+        countsByPath.clear();
+        for (LatencyHistogram latency : latencies)
+            latency.reset();
+        lastReloadNanos = -1;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.monst.pluginconfiguration;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link ConfigurationMetrics}, through which the metrics of a registry are exposed over JMX.
+ * Loads are counted by outcome: every load either succeeds, repairs the stored value, or applies the default value
+ * because the stored value was missing or unreadable.
+ */
+public interface ConfigurationMetricsMXBean {
+
+    /**
+     * @return the number of values loaded
+     */
+    long getLoadCount();
+
+    /**
+     * @return the number of loaded values that were out of bounds or in the wrong format, and were repaired
+     */
+    long getRepairCount();
+
+    /**
+     * @return the number of loaded values that were missing or unreadable, and were replaced by their default
+     */
+    long getDefaultCount();
+
+    /**
+     * @return the number of loaded values that could not be read at all
+     */
+    long getUnreadableCount();
+
+    /**
+     * @return the number of values loaded, by path
+     */
+    Map<String, Long> getLoadCountByPath();
+
+    /**
+     * @return the number of repaired values, by path
+     */
+    Map<String, Long> getRepairCountByPath();
+
+    /**
+     * @return the number of values replaced by their default, by path
+     */
+    Map<String, Long> getDefaultCountByPath();
+
+    /**
+     * @return the number of unreadable values, by path
+     */
+    Map<String, Long> getUnreadableCountByPath();
+
+    /**
+     * @return the time spent reading the data of values from the configuration
+     */
+    LatencyStatistics getReadLatency();
+
+    /**
+     * @return the time spent converting data into values
+     */
+    LatencyStatistics getConvertLatency();
+
+    /**
+     * @return the time spent validating values against their bounds
+     */
+    LatencyStatistics getValidateLatency();
+
+    /**
+     * @return the time spent saving the {@code config.yml} file
+     */
+    LatencyStatistics getSaveLatency();
+
+    /**
+     * @return the duration of the last reload of the registry in nanoseconds, or -1 if it was not reloaded yet
+     */
+    long getLastReloadNanos();
+
+    /**
+     * Resets all counters and histograms.
+     */
+    void reset();
+
+}
@@ -0,0 +1,569 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * A registry of all {@link ConfigurationValue}s of a single plugin.
+ * Registered values can be reloaded together in a single pass, which reads the {@code config.yml} file once,
+ * loads every value from the same {@link FileConfiguration}, and saves the file once at the end, only if
+ * a value actually had to be repaired.
+ * <p>The loaded values of all registered configuration values are held by the registry in an immutable, versioned
+ * {@link ConfigurationSnapshot snapshot}, so that a reload can be staged in the background and then
+ * published to every value at once. Since snapshots are never modified, registered values may be read from
+ * any thread without locking; use {@link #snapshot()} to read several values from the same version.
+ */
+public class ConfigurationRegistry {
+
+    private final Plugin plugin;
+    private final List<ConfigurationValue<?>> values = new ArrayList<>();
+    private final List<Consumer<List<ConfigurationChange<?>>>> batchListeners = new CopyOnWriteArrayList<>();
+    private volatile ConfigurationSnapshot snapshot = ConfigurationSnapshot.empty(this);
+    private volatile ConfigurationSaver saver;
+    private volatile ConfigurationWatcher watcher;
+    private final Object fileLock = new Object();
+    private volatile ConfigurationMetrics metrics;
+    private volatile AccessProfiler profiler;
+
+    public ConfigurationRegistry(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers a configuration value with this registry.
+     * From now on, the loaded value of the configuration value is held by this registry.
+     * This method returns the value itself, so that it can be used directly in a field initializer.
+     * @param value the configuration value to register
+     * @param <V> the type of the configuration value
+     * @return the registered configuration value
+     * @throws IllegalArgumentException if the value belongs to a different plugin, or is already registered
+     */
+    public synchronized <V extends ConfigurationValue<?>> V register(V value) {
+        if (value.getPlugin() != plugin)
+            throw new IllegalArgumentException("Value at " + value.getPath() + " belongs to a different plugin");
+        if (value.isRegistered())
+            throw new IllegalArgumentException("Value at " + value.getPath() + " is already registered");
+        int index = values.size();
+        value.compileBounds();
+        snapshot = snapshot.with(index, value.peek(), value.peekWorldOverrides()); // lazy values stay unloaded
+        values.add(value);
+        value.bind(this, index);
+        return value;
+    }
+
+    /**
+     * Registers multiple configuration values with this registry.
+     * @param values the configuration values to register
+     * @see #register(ConfigurationValue)
+     */
+    public void registerAll(ConfigurationValue<?>... values) {
+        for (ConfigurationValue<?> value : values)
+            register(value);
+    }
+
+    /**
+     * Gets all configuration values registered with this registry, in the order they were registered.
+     * @return an unmodifiable copy of the registered values
+     */
+    public synchronized List<ConfigurationValue<?>> getValues() {
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    /**
+     * Loads every registered {@link ConfigurationValue#isLazy() lazy} configuration value that has not been loaded yet.
+     * @see #preload(Collection)
+     */
+    public void preload() {
+        preload(getValues());
+    }
+
+    /**
+     * Loads the provided {@link ConfigurationValue#isLazy() lazy} configuration values that have not been loaded yet,
+     * all at once. The values are loaded from the plugin {@link FileConfiguration} in a single pass, and the
+     * registered ones among them are published together in a single new snapshot.
+     * This can be used to warm up a set of lazy values ahead of their first use, e.g. when a feature is enabled.
+     * @param values the configuration values to load
+     */
+    public void preload(Collection<? extends ConfigurationValue<?>> values) {
+        FileConfiguration config = null;
+        List<Integer> indexes = new ArrayList<>();
+        List<Object> loaded = new ArrayList<>();
+        List<Object[]> loadedOverrides = new ArrayList<>();
+        for (ConfigurationValue<?> value : values) {
+            if (value.peek() != ConfigurationValue.UNLOADED)
+                continue;
+            if (value.getRegistry() != this) {
+                value.preload();
+                continue;
+            }
+            if (config == null)
+                config = plugin.getConfig();
+            indexes.add(value.getIndex());
+            loaded.add(value.loadRetained(config, null));
+            loadedOverrides.add(value.loadWorldOverrides(config, null));
+        }
+        if (indexes.isEmpty())
+            return;
+        synchronized (this) {
+            snapshot = snapshot.withLoaded(indexes.stream().mapToInt(Integer::intValue).toArray(), loaded.toArray(),
+                    loadedOverrides.toArray(new Object[0][]));
+        }
+    }
+
+    /**
+     * Reloads every registered configuration value.
+     * The {@code config.yml} file is read into memory once using {@link Plugin#reloadConfig()}, after which every
+     * value is loaded from the same {@link FileConfiguration}.
+     * Any repairs made to missing or invalid values are persisted with a single save, which patches the repaired values
+     * into the file to preserve its comments, and is skipped entirely if the configuration was not changed.
+     * @return true if the configuration was changed and saved
+     */
+    public boolean reload() {
+        return reload(false).isDirty();
+    }
+
+    /**
+     * Reloads only those registered configuration values whose data in the {@code config.yml} file has changed
+     * since they were last loaded, including changes to any parent section of their path.
+     * The data in the file is compared against the data each value was last loaded from; values whose data is
+     * unchanged keep their current value and are not converted or validated again. Values that were set or reset
+     * since the last reload are always reloaded.
+     * <p>Apart from that, this method behaves like {@link #reload()}. Note that values whose {@link ConfigurationValue#getBounds()
+     * bounds} depend on other values are not validated again unless their own data changed.
+     * @return the paths of the values whose data had changed and that were reloaded
+     */
+    public Set<String> reloadChanged() {
+        return reload(true).changedPaths;
+    }
+
+    private Stage reload(boolean incremental) {
+        long start = System.nanoTime();
+        flush();
+        plugin.reloadConfig();
+        List<ConfigurationValue<?>> values = getValues();
+        compileBounds(values);
+        Stage stage = stage(values, plugin.getConfig(), snapshot, incremental, metrics);
+        if (stage.isDirty())
+            saveConfig("reload", stage.repairedPaths);
+        publish(stage);
+        recordReload(start);
+        return stage;
+    }
+
+    /**
+     * Saves the plugin {@link FileConfiguration}, measuring the time it takes if metrics are enabled.
+     * Only the values under the changed paths are patched into the file, which preserves its comments; if they cannot
+     * be patched, the whole configuration is saved with {@link Plugin#saveConfig()}.
+     * @param trigger what caused the save, as reported in {@link ConfigurationEvents Flight Recorder events}
+     * @param changedPaths the paths of the values that were changed or repaired
+     */
+    void saveConfig(String trigger, Collection<String> changedPaths) {
+        ConfigurationMetrics metrics = this.metrics;
+        long start = metrics == null ? 0 : System.nanoTime();
+        ConfigurationEvents.Save event = ConfigurationEvents.beginSave();
+        synchronized (fileLock) {
+            ConfigurationSaver.saveConfig(plugin, changedPaths);
+            fileWritten();
+        }
+        ConfigurationEvents.commitSave(event, trigger, changedPaths.size());
+        if (metrics != null)
+            metrics.recordLatency(ConfigurationMetrics.Phase.SAVE, System.nanoTime() - start);
+    }
+
+    private void recordReload(long start) {
+        ConfigurationMetrics metrics = this.metrics;
+        if (metrics != null)
+            metrics.recordReload(System.nanoTime() - start);
+    }
+
+    /**
+     * Reloads every registered configuration value without blocking the server thread.
+     * The {@code config.yml} file is read, and every value is converted and validated, on an asynchronous task.
+     * Any repairs are saved to the file from that same task.
+     * The staged values are then published to every configuration value at once on the next server tick,
+     * at which point the returned future is completed.
+     * <p>Unlike {@link #reload()}, this method does not touch the plugin's in-memory {@link Plugin#getConfig() config};
+     * call {@link Plugin#reloadConfig()} before modifying it after an asynchronous reload.
+     * All registered values must be safe to {@link ConfigurationValue#convert convert} and validate off the server thread.
+     * @return a future that completes with true if the configuration was changed and saved, once the values are published
+     */
+    public CompletableFuture<Boolean> reloadAsync() {
+        return reloadAsync(false).thenApply(Stage::isDirty);
+    }
+
+    /**
+     * Reloads only those registered configuration values whose data has changed, without blocking the server thread.
+     * This method combines the behavior of {@link #reloadChanged()} and {@link #reloadAsync()}.
+     * @return a future that completes with the paths of the reloaded values, once the values are published
+     */
+    public CompletableFuture<Set<String>> reloadChangedAsync() {
+        return reloadAsync(true).thenApply(stage -> stage.changedPaths);
+    }
+
+    private CompletableFuture<Stage> reloadAsync(boolean incremental) {
+        CompletableFuture<Stage> future = new CompletableFuture<>();
+        List<ConfigurationValue<?>> values = getValues();
+        compileBounds(values); // on the calling thread, since bounds may depend on the state of the plugin
+        ConfigurationSnapshot base = snapshot;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                long start = System.nanoTime();
+                flush();
+                File file = new File(plugin.getDataFolder(), "config.yml");
+                ConfigurationMetrics metrics = this.metrics;
+                Stage stage;
+                synchronized (fileLock) { // no other write may happen between reading the file and saving repairs
+                    YamlConfiguration config = new YamlConfiguration();
+                    if (file.exists())
+                        config.load(file);
+                    stage = stage(values, config, base, incremental, metrics);
+                    if (stage.isDirty()) {
+                        long saveStart = System.nanoTime();
+                        ConfigurationEvents.Save event = ConfigurationEvents.beginSave();
+                        config.save(file);
+                        fileWritten();
+                        ConfigurationEvents.commitSave(event, "reload", stage.repairedPaths.size());
+                        if (metrics != null)
+                            metrics.recordLatency(ConfigurationMetrics.Phase.SAVE, System.nanoTime() - saveStart);
+                    }
+                }
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    publish(stage);
+                    recordReload(start);
+                    future.complete(stage);
+                });
+            } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Compiles the bounds of the provided configuration values, which must happen on the server thread.
+     * @param values the configuration values
+     */
+    private static void compileBounds(List<ConfigurationValue<?>> values) {
+        for (ConfigurationValue<?> value : values)
+            value.compileBounds();
+    }
+
+    /**
+     * Loads the provided configuration values from a configuration into a new stage.
+     * If the stage is incremental, values whose data in the configuration is unchanged since the base snapshot
+     * are carried over instead of being loaded again.
+     * This method does not modify the state of this registry or of any configuration value, and uses the bounds that
+     * were last compiled on the server thread.
+     * @param values the configuration values to load, in order of registration
+     * @param config the configuration to load from
+     * @param base the snapshot that is current when staging begins
+     * @param incremental whether to carry over values whose data is unchanged since the base snapshot
+     * @param metrics the metrics to record the reads from the configuration to, or null
+     * @return the staged values
+     */
+    private static Stage stage(List<ConfigurationValue<?>> values, FileConfiguration config,
+                               ConfigurationSnapshot base, boolean incremental, ConfigurationMetrics metrics) {
+        Stage stage = new Stage(values.size(), base);
+        ConfigurationSnapshot previous = incremental ? base : null;
+        for (int i = 0; i < values.size(); i++) {
+            ConfigurationValue<?> value = values.get(i);
+            long start = metrics == null ? 0 : System.nanoTime();
+            ConfigurationEvents.Read event = ConfigurationEvents.beginRead();
+            Object fileData = config.get(value.getPath(), null);
+            ConfigurationEvents.commitRead(event, value.getPath(), fileData);
+            if (metrics != null)
+                metrics.recordLatency(ConfigurationMetrics.Phase.READ, System.nanoTime() - start);
+            if (previous != null && previous.isLoadedFrom(i, fileData)) {
+                stage.worldOverrides[i] = value.loadWorldOverrides(config, stage.repairedPaths); // not covered by the file data
+                stage.values[i] = previous.get(i);
+                stage.fileData[i] = fileData;
+                continue;
+            }
+            stage.worldOverrides[i] = value.loadWorldOverrides(config, stage.repairedPaths);
+            stage.values[i] = value.loadRetained(config, fileData, stage.repairedPaths);
+            stage.fileData[i] = config.get(value.getPath(), null);
+            stage.changedPaths.add(value.getPath());
+        }
+        return stage;
+    }
+
+    /**
+     * Publishes staged values as the next snapshot, replacing the loaded values of all configuration values at once.
+     * Values that were registered after the values were staged keep their current loaded value.
+     * All listeners are then notified of the values that changed.
+     * @param stage the staged values
+     */
+    private void publish(Stage stage) {
+        ConfigurationSnapshot before;
+        ConfigurationSnapshot after;
+        List<ConfigurationValue<?>> values;
+        synchronized (this) {
+            before = snapshot;
+            after = snapshot = before.withStaged(stage.base, stage.values, stage.worldOverrides, stage.fileData);
+            values = new ArrayList<>(this.values);
+        }
+        for (int i = 0; i < stage.values.length; i++)
+            if (!before.isUnchangedSince(i, stage.base)) // changed while staging; the staged value was not published
+                stage.changedPaths.remove(values.get(i).getPath());
+        List<ConfigurationChange<?>> changes = new ArrayList<>();
+        for (int i = 0; i < before.size(); i++) {
+            ConfigurationChange<?> change = values.get(i).changeBetween(before, after);
+            if (change != null)
+                changes.add(change);
+        }
+        if (!changes.isEmpty())
+            dispatch(changes);
+    }
+
+    /**
+     * Replaces the loaded value of a single configuration value.
+     * @param index the index of the configuration value
+     * @param value the new loaded value, as retained
+     * @param overrides the new per-world overrides of the value, or null to keep the current overrides
+     * @return the previously loaded value, as retained
+     */
+    synchronized Object update(int index, Object value, Object[] overrides) {
+        Object oldValue = snapshot.get(index);
+        snapshot = snapshot.with(index, value, overrides);
+        return oldValue;
+    }
+
+    /**
+     * Publishes the first loaded value of a lazy configuration value, unless a value was published concurrently.
+     * @param index the index of the configuration value
+     * @param value the loaded value, as retained
+     * @param overrides the loaded per-world overrides of the value
+     * @return the published value, as retained
+     */
+    synchronized Object materialize(int index, Object value, Object[] overrides) {
+        Object current = snapshot.get(index);
+        if (current != ConfigurationValue.UNLOADED)
+            return current;
+        snapshot = snapshot.with(index, value, overrides);
+        return value;
+    }
+
+    /**
+     * Notifies the listeners of every changed configuration value, and then every batch listener of this registry once.
+     * @param changes the changes to dispatch
+     */
+    void dispatch(List<ConfigurationChange<?>> changes) {
+        for (ConfigurationChange<?> change : changes)
+            change.notifyListeners();
+        List<ConfigurationChange<?>> batch = Collections.unmodifiableList(changes);
+        for (Consumer<List<ConfigurationChange<?>>> listener : batchListeners) {
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Configuration change listener threw an exception", e);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener that is notified of changes to any of the registered configuration values.
+     * All changes caused by a single reload are coalesced into a single call, which allows derived state
+     * to be rebuilt once per reload. A set or reset of a single value results in a call with a single change.
+     * Listeners are called on the thread that made the change after the new values have been published;
+     * for {@link #reloadAsync() asynchronous reloads}, this is the server thread.
+     * @param listener the listener to add
+     */
+    public void addBatchListener(Consumer<List<ConfigurationChange<?>>> listener) {
+        batchListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener that was previously added to this registry.
+     * @param listener the listener to remove
+     */
+    public void removeBatchListener(Consumer<List<ConfigurationChange<?>>> listener) {
+        batchListeners.remove(listener);
+    }
+
+    /**
+     * Enables write-behind saving for the registered configuration values.
+     * From now on, every change made to a registered value through {@link ConfigurationValue#set set},
+     * {@link ConfigurationValue#reset() reset} or {@link ConfigurationValue#parseAndSet parseAndSet} is queued and saved
+     * to the {@code config.yml} file asynchronously; changes made within the specified delay are coalesced into a single save.
+     * Reloads write any pending changes to the file before reading it.
+     * <p>{@link #flush()} must be called from the plugin's {@code onDisable} method to guarantee that no change is lost.
+     * @param delayTicks the delay in server ticks between the first queued change and the save
+     * @return the saver
+     */
+    public synchronized ConfigurationSaver enableWriteBehind(long delayTicks) {
+        if (saver == null)
+            saver = new ConfigurationSaver(this, delayTicks);
+        return saver;
+    }
+
+    /**
+     * Writes any changes queued for write-behind saving to the {@code config.yml} file immediately.
+     * This method does nothing if write-behind is not {@link #enableWriteBehind(long) enabled}.
+     */
+    public void flush() {
+        ConfigurationSaver saver = this.saver;
+        if (saver != null)
+            saver.flush();
+    }
+
+    /**
+     * @return the write-behind saver of this registry, or null if write-behind is not enabled
+     */
+    ConfigurationSaver getSaver() {
+        return saver;
+    }
+
+    /**
+     * Gets the lock that must be held while writing the {@code config.yml} file, so that the registry, its saver and
+     * its watcher never observe or overwrite a write in progress.
+     * @return the file lock
+     */
+    Object getFileLock() {
+        return fileLock;
+    }
+
+    /**
+     * Sets the watcher of the {@code config.yml} file, which is told about every write made through this registry.
+     * @param watcher the watcher, or null if the file is no longer watched
+     */
+    void setWatcher(ConfigurationWatcher watcher) {
+        this.watcher = watcher;
+    }
+
+    /**
+     * Tells the watcher, if any, that the {@code config.yml} file was just written by this plugin, so that the write
+     * is not mistaken for an edit. Must be called while holding the {@link #getFileLock() file lock}.
+     */
+    void fileWritten() {
+        ConfigurationWatcher watcher = this.watcher;
+        if (watcher != null)
+            watcher.recordWrite();
+    }
+
+    /**
+     * Enables the collection of {@link ConfigurationMetrics metrics} for the registered configuration values,
+     * and exposes them through JMX. Until this method is called, no metrics are collected at all.
+     * Metrics must be {@link #disableMetrics() disabled} in the plugin's {@code onDisable} method, so that they
+     * are unregistered from JMX.
+     * @return the metrics
+     */
+    public synchronized ConfigurationMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ConfigurationMetrics(plugin);
+            metrics.register();
+        }
+        return metrics;
+    }
+
+    /**
+     * Stops collecting metrics, and unregisters them from JMX.
+     * This method does nothing if metrics are not {@link #enableMetrics() enabled}.
+     */
+    public synchronized void disableMetrics() {
+        if (metrics != null) {
+            metrics.unregister();
+            metrics = null;
+        }
+    }
+
+    /**
+     * @return the metrics of this registry, or null if metrics are not enabled
+     */
+    ConfigurationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Enables sampling of the reads of the registered configuration values through {@link ConfigurationValue#get()},
+     * to find the values that are read most often. If a report period is given, a report of the most read values is
+     * logged periodically, after which the samples are reset.
+     * If the profiler is already enabled, it is replaced.
+     * @param sampleInterval the number of reads per recorded sample; 1 records every read
+     * @param reportPeriodTicks the period in server ticks between reports, or 0 to never log reports
+     * @param reportLimit the maximum number of values in each report
+     * @return the profiler
+     */
+    public synchronized AccessProfiler enableAccessProfiler(int sampleInterval, long reportPeriodTicks, int reportLimit) {
+        disableAccessProfiler();
+        AccessProfiler profiler = new AccessProfiler(this, sampleInterval);
+        profiler.startReporting(reportPeriodTicks, reportLimit);
+        this.profiler = profiler;
+        return profiler;
+    }
+
+    /**
+     * Stops sampling reads, and stops reporting.
+     * This method does nothing if the profiler is not {@link #enableAccessProfiler(int, long, int) enabled}.
+     */
+    public synchronized void disableAccessProfiler() {
+        if (profiler != null) {
+            profiler.stopReporting();
+            profiler = null;
+        }
+    }
+
+    /**
+     * @return the access profiler of this registry, or null if it is not enabled
+     */
+    AccessProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Gets the current snapshot of the loaded values of all registered configuration values.
+     * The snapshot is immutable; values read from it are consistent with each other, even if the configuration
+     * is changed or reloaded in the meantime. This method never blocks and may be called from any thread.
+     * @return the current snapshot
+     */
+    public ConfigurationSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the plugin whose configuration values are registered with this registry.
+     * @return the plugin instance
+     */
+    public Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * The values loaded from a configuration, to be published as the next snapshot.
+     */
+    private static final class Stage {
+
+        private final Object[] values;
+        private final Object[] fileData;
+        private final Object[][] worldOverrides;
+        private final ConfigurationSnapshot base;
+        private final Set<String> repairedPaths = new HashSet<>();
+        private final Set<String> changedPaths = new LinkedHashSet<>();
+
+        private Stage(int size, ConfigurationSnapshot base) {
+            this.base = base;
+            this.values = new Object[size];
+            this.fileData = new Object[size];
+            this.worldOverrides = new Object[size][];
+        }
+
+        /**
+         * @return true if any value was repaired, and the configuration must be saved
+         */
+        private boolean isDirty() {
+            return !repairedPaths.isEmpty();
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * A write-behind saver for the {@code config.yml} file of a plugin.
+ * Changes made to registered configuration values are queued rather than saved immediately; a burst of changes is
+ * coalesced and written to the file by an asynchronous task after a short delay, in a single atomic file replacement.
+ * Changed values are patched into the existing text of the file, so that comments and formatting are preserved.
+ * <p>Since pending changes cannot be written by the scheduler once the plugin is disabled,
+ * {@link #flush()} must be called from the plugin's {@code onDisable} method to guarantee that no change is lost.
+ * @see ConfigurationRegistry#enableWriteBehind(long)
+ */
+public class ConfigurationSaver {
+
+    private final ConfigurationRegistry registry;
+    private final Plugin plugin;
+    private final long delayTicks;
+    private final Path file;
+    private final Map<String, Object> pending = new LinkedHashMap<>();
+    private BukkitTask task;
+
+    ConfigurationSaver(ConfigurationRegistry registry, long delayTicks) {
+        this.registry = registry;
+        this.plugin = registry.getPlugin();
+        this.delayTicks = delayTicks;
+        this.file = new File(plugin.getDataFolder(), "config.yml").toPath();
+    }
+
+    /**
+     * Queues file data to be written to the specified path, replacing any data queued for the same path before.
+     * If no save is scheduled yet, one is scheduled after the delay of this saver.
+     * @param path the path in the configuration
+     * @param fileData the data to write
+     */
+    void enqueue(String path, Object fileData) {
+        synchronized (this) {
+            pending.put(path, fileData);
+            if (schedule())
+                return;
+        }
+        save(); // the scheduler is no longer available
+    }
+
+    /**
+     * Schedules a save after the delay of this saver, unless one is scheduled already.
+     * @return false if no save could be scheduled because the plugin is disabled
+     */
+    private synchronized boolean schedule() {
+        if (task != null)
+            return true;
+        if (!plugin.isEnabled())
+            return false;
+        task = Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::save, delayTicks);
+        return true;
+    }
+
+    /**
+     * Writes all pending changes to the {@code config.yml} file immediately, on the calling thread.
+     * This method must be called when the plugin is disabled.
+     */
+    public void flush() {
+        synchronized (this) {
+            if (task != null)
+                task.cancel();
+        }
+        save();
+    }
+
+    /**
+     * @return true if there are changes that have not been written to the file yet
+     */
+    public synchronized boolean hasPendingChanges() {
+        return !pending.isEmpty();
+    }
+
+    private void save() {
+        synchronized (registry.getFileLock()) { // shared with every other writer of the file
+            Map<String, Object> changes;
+            synchronized (this) {
+                task = null;
+                if (pending.isEmpty())
+                    return;
+                changes = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+            try {
+                ConfigurationMetrics metrics = registry.getMetrics();
+                long start = metrics == null ? 0 : System.nanoTime();
+                ConfigurationEvents.Save event = ConfigurationEvents.beginSave();
+                write(changes);
+                registry.fileWritten();
+                ConfigurationEvents.commitSave(event, "write-behind", changes.size());
+                if (metrics != null)
+                    metrics.recordLatency(ConfigurationMetrics.Phase.SAVE, System.nanoTime() - start);
+            } catch (IOException | InvalidConfigurationException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not save config.yml", e);
+                synchronized (this) { // keep the changes for the next save, unless they were superseded
+                    for (Map.Entry<String, Object> change : changes.entrySet())
+                        pending.putIfAbsent(change.getKey(), change.getValue());
+                    schedule(); // retry after the delay; if the plugin is disabled, the next flush retries
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies changes to the current content of the {@code config.yml} file, and atomically replaces the file.
+     * Each change is patched into the existing text of the file where possible, which preserves comments and formatting.
+     * If any change cannot be patched, the whole file is serialized again instead.
+     * @param changes the file data to write, by path
+     */
+    private void write(Map<String, Object> changes) throws IOException, InvalidConfigurationException {
+        String text = read(file);
+        String patched = patch(text, changes);
+        if (patched == null) {
+            YamlConfiguration config = new YamlConfiguration();
+            config.loadFromString(text);
+            for (Map.Entry<String, Object> change : changes.entrySet())
+                config.set(change.getKey(), change.getValue());
+            patched = config.saveToString();
+        }
+        replace(file, patched);
+    }
+
+    /**
+     * Saves the plugin {@link FileConfiguration} synchronously, by patching only the values under the provided paths
+     * into the existing text of the {@code config.yml} file, which preserves comments and formatting.
+     * If any of the values cannot be patched, or the file cannot be read, {@link Plugin#saveConfig()} is called instead.
+     * <p>The caller must hold the file lock of the registry, if any.
+     * @param plugin the plugin whose configuration to save
+     * @param paths the paths whose values were changed in the plugin configuration since it was loaded
+     */
+    static void saveConfig(Plugin plugin, Collection<String> paths) {
+        FileConfiguration config = plugin.getConfig();
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String path : paths)
+            changes.put(path, config.get(path, null));
+        Path file = new File(plugin.getDataFolder(), "config.yml").toPath();
+        try {
+            String patched = patch(read(file), changes);
+            if (patched != null) {
+                replace(file, patched);
+                return;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not patch config.yml, saving it in full instead", e);
+        }
+        plugin.saveConfig();
+    }
+
+    private static String read(Path file) throws IOException {
+        return Files.exists(file) ? new String(Files.readAllBytes(file), StandardCharsets.UTF_8) : "";
+    }
+
+    /**
+     * Patches changes into the text of a YAML document.
+     * @return the patched text, or null if any change could not be patched
+     */
+    private static String patch(String text, Map<String, Object> changes) {
+        String patched = text;
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            patched = YamlPatcher.patch(patched, change.getKey(), change.getValue());
+            if (patched == null)
+                return null;
+        }
+        return patched;
+    }
+
+    /**
+     * Atomically replaces the content of a file, falling back to a regular move if atomic moves are not supported.
+     */
+    private static void replace(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, text.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
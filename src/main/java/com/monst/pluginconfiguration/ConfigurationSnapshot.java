@@ -0,0 +1,221 @@
+package com.monst.pluginconfiguration;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable, versioned set of loaded values for all {@link ConfigurationValue}s of a {@link ConfigurationRegistry}.
+ * A registry replaces its snapshot as a whole whenever one of its values changes, so that a reload can be published
+ * with a single reference swap.
+ * <p>Snapshots are safe to share between threads. Reading several related values from the same snapshot, obtained
+ * from {@link ConfigurationRegistry#snapshot()}, guarantees that they all belong to the same version, even if the
+ * configuration is changed or reloaded concurrently on another thread.
+ */
+public final class ConfigurationSnapshot {
+
+    /**
+     * Marks file data that is not known to correspond to the loaded value, e.g. because the value was set since.
+     */
+    private static final Object UNKNOWN = new Object();
+
+    private final ConfigurationRegistry registry;
+    private final Object[] values;
+    private final long[] primitives;
+    private final Object[][] overrides;
+    private final Object[] fileData;
+    private final long[] versions;
+    private final long version;
+
+    private ConfigurationSnapshot(ConfigurationRegistry registry, Object[] values, long[] primitives,
+                                  Object[][] overrides, Object[] fileData, long[] versions, long version) {
+        this.registry = registry;
+        this.values = values;
+        this.primitives = primitives;
+        this.overrides = overrides;
+        this.fileData = fileData;
+        this.versions = versions;
+        this.version = version;
+    }
+
+    /**
+     * Creates the initial, empty snapshot of a registry.
+     * @param registry the registry
+     * @return a snapshot without any values at version 0
+     */
+    static ConfigurationSnapshot empty(ConfigurationRegistry registry) {
+        return new ConfigurationSnapshot(registry, new Object[0], new long[0], new Object[0][], new Object[0], new long[0],
+                0);
+    }
+
+    /**
+     * Gets the value of a configuration value as of this snapshot.
+     * @param value a configuration value registered with the same registry as this snapshot
+     * @param <T> the type of the value
+     * @return the loaded value in this version of the configuration
+     * @throws IllegalArgumentException if the configuration value is not registered with the registry of this snapshot,
+     * or was registered after this snapshot was taken
+     */
+    public <T> T get(ConfigurationValue<T> value) {
+        return value.getFrom(this);
+    }
+
+    /**
+     * Gets the version of this snapshot. Every change to the configuration values of a registry produces a snapshot
+     * with a higher version than the last.
+     * @return the version of this snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(int index) {
+        return (T) values[index];
+    }
+
+    /**
+     * Gets the value at the specified index as the {@link #toPrimitive(Object) primitive} stored alongside it,
+     * so that numeric values can be read from this snapshot without unboxing.
+     * @param index the index of the value
+     * @return the primitive representation of the value
+     */
+    long getPrimitive(int index) {
+        return primitives[index];
+    }
+
+    /**
+     * Converts a value to the primitive stored alongside it in a snapshot. Integral numbers are stored as their
+     * {@code long} value, floating-point numbers as the raw bits of their {@code double} value, and anything else as 0.
+     * @param value the value
+     * @return the primitive representation of the value
+     */
+    static long toPrimitive(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+        if (value instanceof Double || value instanceof Float)
+            return Double.doubleToRawLongBits(((Number) value).doubleValue());
+        return 0;
+    }
+
+    /**
+     * Gets the per-world overrides of the value at the specified index, which belong to the same version as the value.
+     * @param index the index of the value
+     * @return the overrides indexed by {@link WorldIds world id}, or null if the value was not loaded yet
+     */
+    Object[] getOverrides(int index) {
+        return overrides[index];
+    }
+
+    ConfigurationRegistry getRegistry() {
+        return registry;
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    /**
+     * Checks whether the value at the specified index is still the same as in an earlier snapshot, i.e. whether it was
+     * not set, reset, reloaded or loaded for the first time in between.
+     * @param index the index of the value
+     * @param earlier an earlier snapshot of the same registry
+     * @return true if the value was not replaced since the earlier snapshot
+     */
+    boolean isUnchangedSince(int index, ConfigurationSnapshot earlier) {
+        return index < earlier.versions.length && versions[index] == earlier.versions[index];
+    }
+
+    /**
+     * Checks whether the value at the specified index was loaded from the provided file data.
+     * @param index the index of the value
+     * @param data the data currently stored in the configuration under the path of the value
+     * @return true if the value is known to have been loaded from equal data
+     */
+    boolean isLoadedFrom(int index, Object data) {
+        return index < fileData.length && fileData[index] != UNKNOWN && Objects.equals(fileData[index], data);
+    }
+
+    /**
+     * Creates the next version of this snapshot with the value at the specified index replaced.
+     * If the index is equal to the size of this snapshot, the value is appended instead.
+     * @param index the index of the value
+     * @param value the new value
+     * @param overrides the new per-world overrides of the value, or null to keep the current overrides
+     * @return a new snapshot
+     */
+    ConfigurationSnapshot with(int index, Object value, Object[] overrides) {
+        int size = Math.max(values.length, index + 1);
+        Object[] valuesCopy = Arrays.copyOf(values, size);
+        long[] primitivesCopy = Arrays.copyOf(primitives, size);
+        Object[][] overridesCopy = Arrays.copyOf(this.overrides, size);
+        Object[] fileDataCopy = Arrays.copyOf(fileData, size);
+        long[] versionsCopy = Arrays.copyOf(versions, size);
+        valuesCopy[index] = value;
+        primitivesCopy[index] = toPrimitive(value);
+        if (overrides != null)
+            overridesCopy[index] = overrides;
+        fileDataCopy[index] = UNKNOWN;
+        versionsCopy[index] = version + 1;
+        return new ConfigurationSnapshot(registry, valuesCopy, primitivesCopy, overridesCopy, fileDataCopy, versionsCopy,
+                version + 1);
+    }
+
+    /**
+     * Creates the next version of this snapshot with lazy values loaded for the first time.
+     * Values that are not {@link ConfigurationValue#UNLOADED unloaded} anymore in this snapshot are kept.
+     * @param indexes the indexes of the loaded values
+     * @param loaded the loaded values, in the same order
+     * @param loadedOverrides the loaded per-world overrides of the values, in the same order
+     * @return a new snapshot
+     */
+    ConfigurationSnapshot withLoaded(int[] indexes, Object[] loaded, Object[][] loadedOverrides) {
+        Object[] valuesCopy = values.clone();
+        long[] primitivesCopy = primitives.clone();
+        Object[][] overridesCopy = overrides.clone();
+        Object[] fileDataCopy = fileData.clone();
+        long[] versionsCopy = versions.clone();
+        for (int i = 0; i < indexes.length; i++) {
+            if (valuesCopy[indexes[i]] != ConfigurationValue.UNLOADED)
+                continue;
+            valuesCopy[indexes[i]] = loaded[i];
+            primitivesCopy[indexes[i]] = toPrimitive(loaded[i]);
+            overridesCopy[indexes[i]] = loadedOverrides[i];
+            fileDataCopy[indexes[i]] = UNKNOWN;
+            versionsCopy[indexes[i]] = version + 1;
+        }
+        return new ConfigurationSnapshot(registry, valuesCopy, primitivesCopy, overridesCopy, fileDataCopy, versionsCopy,
+                version + 1);
+    }
+
+    /**
+     * Creates the next version of this snapshot with the values replaced by a staged array of values.
+     * Values that were replaced since the snapshot the stage is based on, e.g. because they were set while the stage
+     * was being loaded, are kept along with their per-world overrides, as are the values the staged array does not
+     * cover.
+     * @param base the snapshot that was current when staging began
+     * @param staged the staged values, in order of registration
+     * @param stagedOverrides the per-world overrides staged with each value
+     * @param stagedFileData the file data each staged value was loaded from
+     * @return a new snapshot
+     */
+    ConfigurationSnapshot withStaged(ConfigurationSnapshot base, Object[] staged, Object[][] stagedOverrides,
+                                     Object[] stagedFileData) {
+        Object[] valuesCopy = values.clone();
+        long[] primitivesCopy = primitives.clone();
+        Object[][] overridesCopy = overrides.clone();
+        Object[] fileDataCopy = fileData.clone();
+        long[] versionsCopy = versions.clone();
+        for (int i = 0; i < staged.length; i++) {
+            if (!isUnchangedSince(i, base))
+                continue;
+            valuesCopy[i] = staged[i];
+            primitivesCopy[i] = toPrimitive(staged[i]);
+            overridesCopy[i] = stagedOverrides[i];
+            fileDataCopy[i] = stagedFileData[i];
+            versionsCopy[i] = version + 1;
+        }
+        return new ConfigurationSnapshot(registry, valuesCopy, primitivesCopy, overridesCopy, fileDataCopy, versionsCopy,
+                version + 1);
+    }
+
+}
@@ -1,16 +1,20 @@
 package com.monst.pluginconfiguration;
 
 import com.monst.pluginconfiguration.exception.ArgumentParseException;
-import com.monst.pluginconfiguration.exception.MissingValueException;
 import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import com.monst.pluginconfiguration.validation.Bound;
+import com.monst.pluginconfiguration.validation.RepairFlag;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
+import java.util.logging.Level;
 
 /**
  * A configuration value stored in the {@code config.yml} file under a certain path.
@@ -22,12 +26,57 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
 
     private final Plugin plugin;
     private final String path;
-    private final T defaultValue;
-    private T loadedValue;
+    private T defaultValue;
+    private volatile boolean defaultValidated;
+    private volatile Object loadedValue; // as retained in memory, see #retain
+    private volatile Object[] worldOverrides; // null until loaded; held by the snapshot once registered
+    private volatile ConfigurationRegistry registry;
+    private int index;
+    private volatile Bound<T> compiledBound;
+    private final List<ChangeListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Derived<String> formattedValue;
+    private volatile String formattedDefaultValue;
+
+    /**
+     * A result derived from a loaded value, which remains valid for as long as that very value is current.
+     * The loaded value is identified by the form in which it is {@link #retain retained}.
+     * @param <R> the type of the result
+     */
+    static final class Derived<R> {
+        private final Object source;
+        private final R result;
+
+        Derived(Object source, R result) {
+            this.source = source;
+            this.result = result;
+        }
+
+        boolean isDerivedFrom(Object value) {
+            return source == value;
+        }
+
+        R get() {
+            return result;
+        }
+    }
+
+    /**
+     * Marks a {@link #isLazy() lazy} configuration value that has not been loaded yet.
+     */
+    static final Object UNLOADED = new Object();
+
+    /**
+     * The default section of the configuration holding per-world overrides, under {@code worlds.<world name>.<path>}.
+     * @see #getWorldOverridesSection()
+     */
+    public static final String WORLD_OVERRIDES_SECTION = "worlds";
+
+    private static final Object[] NO_OVERRIDES = new Object[0];
 
     /**
      * Creates a new configuration value of the specified plugin at the specified path in the plugin's {@code config.yml} file.
-     * Calling this constructor will immediately load the value from the file, creating it if it doesn't exist.
+     * Calling this constructor will immediately load the value from the file, creating it if it doesn't exist,
+     * unless this value is {@link #isLazy() lazy}.
      * @param plugin the plugin instance
      * @param path the path in the {@code config.yml} file (subsections are demarcated with .)
      * @param defaultValue the default value of this configuration value
@@ -35,73 +84,596 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
     public ConfigurationValue(Plugin plugin, String path, T defaultValue) {
         this.plugin = plugin;
         this.path = path;
+        this.defaultValue = defaultValue;
+        if (isLazy()) {
+            this.loadedValue = UNLOADED;
+            return;
+        }
         this.defaultValue = validate(defaultValue);
-        this.loadedValue = load();
+        this.defaultValidated = true;
+        this.loadedValue = loadInitially();
+        this.worldOverrides = loadWorldOverrides();
+    }
+
+    /**
+     * Returns whether this configuration value is loaded lazily.
+     * A lazy value is neither validated nor loaded when it is created, but only when it is first needed, e.g. by
+     * {@link #get()}, or when it is {@link #preload() preloaded}. This speeds up enabling a plugin with many
+     * configuration values that are only used by rarely used features.
+     * Reloading a {@link ConfigurationRegistry registry} loads all of its values, including lazy ones.
+     * Changes to a lazy value made before it was first loaded are not reported to listeners, since there is no
+     * previous value to report.
+     * <p>This method is called from the constructor, and must therefore not depend on the state of a subclass.
+     * By default, this method returns false.
+     * @return true if this value should be loaded lazily
+     */
+    protected boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * Loads the initial value of this configuration value, restoring it from the open {@link ConfigurationCache}
+     * of the plugin if possible. Restored values are not read from the {@link FileConfiguration}, and their bounds are
+     * not enforced; they are only {@link #convert converted} from the cached data, which may still validate parts of
+     * them, e.g. the elements of a collection.
+     * @return the initial value, as {@link #retain retained}
+     */
+    private Object loadInitially() {
+        ConfigurationCache cache = ConfigurationCache.getOpenCache(plugin);
+        if (cache != null) {
+            Object data = cache.restore(this);
+            if (data != ConfigurationCache.MISS) {
+                try {
+                    return retain(convert(data), data);
+                } catch (ValueOutOfBoundsException | UnreadableValueException ignored) {
+                    // the cached data is not valid anymore
+                }
+            }
+        }
+        return loadRetained(plugin.getConfig(), null);
     }
 
     /**
      * Gets the current value of this configuration value as seen in the {@code config.yml} file.
+     * This method may be called from any thread, and always returns the most recently published value.
+     * To read several values consistently from the same version, use a {@link ConfigurationRegistry#snapshot() snapshot}.
      * @return the current value
      */
     @Override
     public T get() {
+        return resolve(getRetained());
+    }
+
+    /**
+     * Gets the current value of this configuration value in the form in which it is {@link #retain retained}.
+     * @return the current value as retained in memory
+     */
+    protected final Object getRetained() {
+        Object retained;
+        ConfigurationRegistry registry = this.registry;
+        if (registry != null) {
+            AccessProfiler profiler = registry.getProfiler();
+            if (profiler != null)
+                profiler.sample(index);
+            retained = registry.snapshot().get(index);
+        } else
+            retained = loadedValue;
+        if (retained == UNLOADED)
+            return materialize();
+        return retained;
+    }
+
+    /**
+     * Converts a loaded value into the form in which it is retained in memory, i.e. in the
+     * {@link ConfigurationSnapshot snapshots} of the registry of this value, or in this value itself.
+     * Every call to {@link #get()} {@link #resolve(Object) resolves} the retained form back into a value.
+     * By default, the value itself is retained. Subclasses may retain a lighter form instead, such as a reference by
+     * name to an object that should not be kept in memory, in which case they must override both methods.
+     * <p>This method may be called from any thread, and must not depend on the state of a subclass, since it is called
+     * from the constructor.
+     * @param t the loaded value
+     * @param data the data in the configuration file the value was loaded from, or null if it was not loaded from the
+     *             file, e.g. because it was set
+     * @return the form to retain in memory
+     */
+    protected Object retain(T t, Object data) {
+        return t;
+    }
+
+    /**
+     * Resolves a value from the form in which it was {@link #retain retained} in memory.
+     * By default, the retained form is the value itself.
+     * @param retained the retained form of a value
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    protected T resolve(Object retained) {
+        return (T) retained;
+    }
+
+    /**
+     * Gets the current value of this configuration value as a primitive, for the unboxed getters of numeric values.
+     * If this value is registered, the primitive is stored in the {@link ConfigurationSnapshot snapshot} alongside
+     * the value itself, and is read without unboxing. Integral numbers are returned as their {@code long} value, and
+     * floating-point numbers as the raw bits of their {@code double} value, see {@link Double#longBitsToDouble(long)}.
+     * @return the primitive representation of the current value
+     */
+    protected final long getPrimitive() {
+        ConfigurationRegistry registry = this.registry;
+        if (registry != null) {
+            ConfigurationSnapshot snapshot = registry.snapshot();
+            if (snapshot.get(index) != UNLOADED) {
+                AccessProfiler profiler = registry.getProfiler();
+                if (profiler != null)
+                    profiler.sample(index);
+                return snapshot.getPrimitive(index);
+            }
+        }
+        return ConfigurationSnapshot.toPrimitive(get());
+    }
+
+    /**
+     * @return the current loaded value as {@link #retain retained}, which is {@link #UNLOADED} if this value is lazy and
+     * was not loaded yet
+     */
+    Object peek() {
+        ConfigurationRegistry registry = this.registry;
+        if (registry != null)
+            return registry.snapshot().get(index);
         return loadedValue;
     }
 
+    /**
+     * Gets the value of this configuration value in a world, which is the value at
+     * {@code <section>.<world name>.<path>} in the {@code config.yml} file if this value {@link #hasWorldOverrides()
+     * has world overrides} and one is present for that world, or the {@link #get() global value} otherwise.
+     * The section is {@code worlds} unless {@link #getWorldOverridesSection() specified} otherwise.
+     * <p>Overrides are resolved into an array indexed by {@link WorldIds world id} whenever this value is loaded, so
+     * that an overridden value is found with a single array load. Look up the world id once per event with
+     * {@link WorldIds#of(World)}, and use it for every value read while handling the event.
+     * <p>If this value is registered, its overrides are part of the {@link ConfigurationSnapshot snapshots} of the
+     * registry, so that the override and the global value are always read from the same version.
+     * @param worldId the {@link WorldIds id} of the world
+     * @return the value in the world
+     */
+    public T get(int worldId) {
+        Object retained;
+        Object[] overrides;
+        ConfigurationRegistry registry = this.registry;
+        if (registry != null) {
+            AccessProfiler profiler = registry.getProfiler();
+            if (profiler != null)
+                profiler.sample(index);
+            ConfigurationSnapshot snapshot = registry.snapshot();
+            retained = snapshot.get(index);
+            overrides = snapshot.getOverrides(index);
+        } else {
+            overrides = worldOverrides;
+            retained = loadedValue;
+        }
+        if (retained == UNLOADED) {
+            materialize();
+            return get(worldId);
+        }
+        if (overrides != null && worldId < overrides.length) {
+            Object override = overrides[worldId];
+            if (override != null)
+                return resolve(override);
+        }
+        return resolve(retained);
+    }
+
+    /**
+     * Gets the value of this configuration value in a world.
+     * This method looks up the {@link WorldIds id} of the world on every call; in hot paths, prefer {@link #get(int)}.
+     * @param world the world
+     * @return the value in the world
+     * @see #get(int)
+     */
+    public T get(World world) {
+        return get(WorldIds.of(world));
+    }
+
+    /**
+     * Returns whether this configuration value may be overridden per world, under
+     * {@code <section>.<world name>.<path>} in the {@code config.yml} file, where the section is given by
+     * {@link #getWorldOverridesSection()}. Overrides are converted and validated like the value itself, and repaired
+     * overrides are written back to the file; unreadable overrides are ignored.
+     * World names containing dots cannot be overridden, since dots separate the sections of a path.
+     * <p>This method is called from the constructor, and must therefore not depend on the state of a subclass.
+     * By default, this method returns false.
+     * @return true if this value has per-world overrides
+     * @see #get(int)
+     */
+    protected boolean hasWorldOverrides() {
+        return false;
+    }
+
+    /**
+     * Gets the section of the configuration holding the per-world overrides of this value, if it
+     * {@link #hasWorldOverrides() has world overrides}. Override this method if the configuration already has a
+     * setting of its own under the default section, or to keep the overrides of a plugin under a section of its own.
+     * <p>This method is called from the constructor, and must therefore not depend on the state of a subclass.
+     * By default, this method returns {@link #WORLD_OVERRIDES_SECTION}.
+     * @return the path of the section holding per-world overrides
+     */
+    protected String getWorldOverridesSection() {
+        return WORLD_OVERRIDES_SECTION;
+    }
+
+    /**
+     * Loads the per-world overrides of this value from the provided {@link FileConfiguration}, without changing the
+     * current overrides. Like {@link #load(FileConfiguration, Set)}, this method may be called from any thread.
+     * @param config the configuration to load from, and to write repairs to
+     * @param changedPaths a set to which the path of every repaired override is added, or null
+     * @return the {@link #retain retained} overrides, indexed by {@link WorldIds world id}, with null for worlds
+     * without an override
+     */
+    Object[] loadWorldOverrides(FileConfiguration config, Set<String> changedPaths) {
+        if (!hasWorldOverrides())
+            return NO_OVERRIDES;
+        String section = getWorldOverridesSection();
+        ConfigurationSection worlds = config.getConfigurationSection(section);
+        if (worlds == null)
+            return NO_OVERRIDES;
+        Object[] overrides = NO_OVERRIDES;
+        for (String world : worlds.getKeys(false)) {
+            String overridePath = section + "." + world + "." + path;
+            Object o = config.get(overridePath, null);
+            if (o == null)
+                continue;
+            T value;
+            try {
+                ExceptionBuffer<T> buffer = read(o);
+                value = buffer.get();
+                if (buffer.isRepaired()) {
+                    config.set(overridePath, convertToFileData(value));
+                    if (changedPaths != null)
+                        changedPaths.add(overridePath);
+                }
+            } catch (UnreadableValueException e) {
+                continue; // fall back to the global value
+            }
+            int id = WorldIds.of(world);
+            if (id >= overrides.length)
+                overrides = Arrays.copyOf(overrides, id + 1);
+            overrides[id] = retain(value, o);
+        }
+        return overrides;
+    }
+
+    /**
+     * Loads the per-world overrides of this value from the plugin {@link FileConfiguration}.
+     * The configuration is not fetched at all unless this value {@link #hasWorldOverrides() has world overrides},
+     * since fetching it may read the {@code config.yml} file, e.g. when this value was restored from a
+     * {@link ConfigurationCache}.
+     * @return the overrides
+     */
+    private Object[] loadWorldOverrides() {
+        if (!hasWorldOverrides())
+            return NO_OVERRIDES;
+        return loadWorldOverrides(plugin.getConfig(), null);
+    }
+
+    /**
+     * @return the loaded per-world overrides of this value, which are null if this value is lazy and was not loaded yet
+     */
+    Object[] peekWorldOverrides() {
+        return worldOverrides;
+    }
+
+    /**
+     * Loads this value if it is {@link #isLazy() lazy} and has not been loaded yet.
+     * Calling this method is never necessary, but loading values ahead of time avoids loading them on first use.
+     * To preload many registered values at once, use {@link ConfigurationRegistry#preload()}.
+     */
+    public void preload() {
+        get();
+    }
+
+    /**
+     * Loads a lazy value and its per-world overrides for the first time. Loading happens at most once, under the lock
+     * of this value; the loaded value is then published with a volatile write, which also publishes the validated
+     * default value and the overrides.
+     * @return the loaded value, as {@link #retain retained}
+     */
+    private synchronized Object materialize() {
+        Object value = peek();
+        if (value != UNLOADED)
+            return value; // loaded concurrently
+        value = loadRetained(plugin.getConfig(), null);
+        Object[] overrides = loadWorldOverrides();
+        ConfigurationRegistry registry = this.registry;
+        if (registry != null)
+            return registry.materialize(index, value, overrides);
+        worldOverrides = overrides;
+        loadedValue = value;
+        return value;
+    }
+
+    /**
+     * Gets the value of this configuration value as of the provided snapshot.
+     * @param snapshot a snapshot of the registry this value is registered with
+     * @return the loaded value in the snapshot
+     * @throws IllegalArgumentException if this value is not part of the snapshot
+     */
+    T getFrom(ConfigurationSnapshot snapshot) {
+        if (registry != snapshot.getRegistry() || index >= snapshot.size())
+            throw new IllegalArgumentException("Value at " + path + " is not part of this snapshot");
+        Object value = snapshot.get(index);
+        if (value == UNLOADED)
+            value = materialize();
+        return resolve(value);
+    }
+
     /**
      * Reloads this configuration value.
      * <p><b>Note:</b></p> it is the responsibility of the developer to call {@link Plugin#reloadConfig()}
      * before using this method, to ensure that the most recent version of the {@code config.yml} file is loaded into memory,
      * as well as {@link Plugin#saveConfig()} afterwards to finally persist any changes into the file.
      * <p>If multiple values are to be reloaded consecutively, it is best practice to call {@link Plugin#reloadConfig() reloadConfig}
-     * once at the very beginning, and {@link Plugin#saveConfig() saveConfig} once at the very end.
+     * once at the very beginning, and {@link Plugin#saveConfig() saveConfig} once at the very end,
+     * or to {@link ConfigurationRegistry#register register} the values and use {@link ConfigurationRegistry#reload()}.
      */
     @SuppressWarnings("unused")
     public void reload() {
-        this.loadedValue = load();
+        compileBounds();
+        Object newValue = loadRetained(plugin.getConfig(), null);
+        fireChange(swapLoadedValue(newValue, loadWorldOverrides()), resolve(newValue));
+    }
+
+    /**
+     * Replaces the loaded value with a value that was loaded by other means than {@link #load(FileConfiguration, Set)},
+     * e.g. by streaming it from the file.
+     * @param value the newly loaded value
+     * @param repaired whether the value differs from what is stored in the file, and must therefore be written
+     */
+    void reloadWith(T value, boolean repaired) {
+        if (repaired)
+            write(value);
+        fireChange(swapLoadedValue(retain(value, null), null), value);
     }
 
     /**
-     * Loads this configuration value from the plugin's current {@link FileConfiguration} using {@link Plugin#getConfig()}.
-     * If the value was missing or uninterpretable, the default value will be written to the plugin config and returned.
-     * If the value was otherwise imperfectly formed or outside its bounds, a replacement will be written to the plugin config and returned.
-     * In any case, by the time this method returns a value, that value will be what is found in the plugin config.
+     * Loads this configuration value from the provided {@link FileConfiguration}, without changing the current value.
+     * If the value was missing or uninterpretable, the default value will be written to the config and returned.
+     * If the value was otherwise imperfectly formed or outside its bounds, a replacement will be written to the config and returned.
+     * In any case, by the time this method returns a value, that value will be what is found in the config.
+     * <p>This method does not touch any state of this configuration value, and may therefore be called from any thread,
+     * provided that {@link #convert} and the {@link #getBounds() bounds} of this value are safe to call from that thread.
+     * @param config the configuration to load from
+     * @param changedPaths a set to which the path of this value is added if the config was changed, or null
      * @return the loaded value from the config
      */
-    private T load() {
-        try {
-            return read(plugin.getConfig(), path);
-        } catch (MissingValueException | UnreadableValueException e) {
-            write(defaultValue);
-            return defaultValue;
-        } catch (ValueOutOfBoundsException e) {
-            write(e.getReplacement());
-            return e.getReplacement();
+    T load(FileConfiguration config, Set<String> changedPaths) {
+        return load(config, fetch(config), changedPaths);
+    }
+
+    /**
+     * Loads this configuration value like {@link #load(FileConfiguration, Set)}, in the form in which it is
+     * {@link #retain retained} in memory.
+     * @param config the configuration to load from
+     * @param changedPaths a set to which the path of this value is added if the config was changed, or null
+     * @return the loaded value, as retained
+     */
+    Object loadRetained(FileConfiguration config, Set<String> changedPaths) {
+        return loadRetained(config, fetch(config), changedPaths);
+    }
+
+    /**
+     * Loads this configuration value like {@link #load(FileConfiguration, Object, Set)}, in the form in which it is
+     * {@link #retain retained} in memory.
+     * @param config the configuration the data was fetched from, and to write repairs to
+     * @param o the data stored in the configuration under the path of this value, or null if it is missing
+     * @param changedPaths a set to which the path of this value is added if the config was changed, or null
+     * @return the loaded value, as retained
+     */
+    Object loadRetained(FileConfiguration config, Object o, Set<String> changedPaths) {
+        return retain(load(config, o, changedPaths), o);
+    }
+
+    /**
+     * Fetches the data stored under the path of this value from a configuration, measuring the read.
+     * @param config the configuration
+     * @return the data, or null if it is missing
+     */
+    private Object fetch(FileConfiguration config) {
+        ConfigurationMetrics metrics = getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+        ConfigurationEvents.Read event = ConfigurationEvents.beginRead();
+        Object o = config.get(path, null); // preserve nullability
+        ConfigurationEvents.commitRead(event, path, o);
+        if (metrics != null)
+            metrics.recordLatency(ConfigurationMetrics.Phase.READ, System.nanoTime() - start);
+        return o;
+    }
+
+    /**
+     * Loads this configuration value from data that was already fetched from the provided {@link FileConfiguration}.
+     * @param config the configuration the data was fetched from, and to write repairs to
+     * @param o the data stored in the configuration under the path of this value, or null if it is missing
+     * @param changedPaths a set to which the path of this value is added if the config was changed, or null
+     * @return the loaded value from the config
+     * @see #load(FileConfiguration, Set)
+     */
+    T load(FileConfiguration config, Object o, Set<String> changedPaths) {
+        ConfigurationEvents.Load event = ConfigurationEvents.beginLoad();
+        T value = getDefaultValue();
+        ConfigurationMetrics.Outcome outcome = ConfigurationMetrics.Outcome.MISSING;
+        if (o != null) { // otherwise, the value is not present in the file
+            try {
+                ExceptionBuffer<T> buffer = read(o);
+                if (!buffer.isRepaired()) {
+                    recordLoad(ConfigurationMetrics.Outcome.LOADED);
+                    ConfigurationEvents.commitLoad(event, path, o, ConfigurationMetrics.Outcome.LOADED);
+                    return buffer.get();
+                }
+                value = buffer.get();
+                outcome = ConfigurationMetrics.Outcome.REPAIRED;
+            } catch (UnreadableValueException e) {
+                outcome = ConfigurationMetrics.Outcome.UNREADABLE;
+            }
+        }
+        recordLoad(outcome);
+        if (write(config, value) && changedPaths != null)
+            changedPaths.add(path);
+        ConfigurationEvents.commitLoad(event, path, o, outcome);
+        return value;
+    }
+
+    /**
+     * Sets the loaded value of this configuration value, which is stored in the current
+     * {@link ConfigurationSnapshot snapshot} of the registry if this value is registered.
+     * @param retained the new loaded value, as {@link #retain retained}
+     * @param overrides the new per-world overrides, or null to keep the current overrides
+     * @return the previously loaded value, as retained
+     */
+    private Object swapLoadedValue(Object retained, Object[] overrides) {
+        if (registry != null)
+            return registry.update(index, retained, overrides);
+        Object oldValue = loadedValue;
+        if (overrides != null)
+            worldOverrides = overrides;
+        loadedValue = retained;
+        return oldValue;
+    }
+
+    /**
+     * Notifies the listeners of this configuration value, as well as the batch listeners of its registry,
+     * if the new value differs from the old value.
+     * @param oldRetained the previous value, as {@link #retain retained}
+     * @param newValue the new value
+     */
+    private void fireChange(Object oldRetained, T newValue) {
+        if (oldRetained == UNLOADED)
+            return;
+        T oldValue = resolve(oldRetained);
+        if (Objects.equals(oldValue, newValue))
+            return;
+        ConfigurationChange<T> change = new ConfigurationChange<>(this, oldValue, newValue);
+        if (registry != null)
+            registry.dispatch(Collections.singletonList(change));
+        else
+            change.notifyListeners();
+    }
+
+    /**
+     * Creates a change of this configuration value between two snapshots of its registry.
+     * @param before the earlier snapshot
+     * @param after the later snapshot
+     * @return the change, or null if the value is equal in both snapshots
+     */
+    ConfigurationChange<T> changeBetween(ConfigurationSnapshot before, ConfigurationSnapshot after) {
+        Object oldRetained = before.get(index);
+        Object newRetained = after.get(index);
+        if (oldRetained == UNLOADED || newRetained == UNLOADED)
+            return null;
+        T oldValue = resolve(oldRetained);
+        T newValue = resolve(newRetained);
+        if (Objects.equals(oldValue, newValue))
+            return null;
+        return new ConfigurationChange<>(this, oldValue, newValue);
+    }
+
+    /**
+     * Adds a listener that is notified whenever this configuration value changes, whether it is set, reset, or reloaded.
+     * Listeners are called on the thread that made the change after the new value has been published;
+     * for {@link ConfigurationRegistry#reloadAsync() asynchronous reloads}, this is the server thread.
+     * A listener is only notified if the new value is not {@link Object#equals(Object) equal} to the old value.
+     * @param listener the listener to add
+     */
+    public void addListener(ChangeListener<? super T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener that was previously added to this configuration value.
+     * @param listener the listener to remove
+     */
+    public void removeListener(ChangeListener<? super T> listener) {
+        listeners.remove(listener);
+    }
+
+    void notifyListeners(T oldValue, T newValue) {
+        for (ChangeListener<? super T> listener : listeners) {
+            try {
+                listener.onChange(oldValue, newValue);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Change listener of " + path + " threw an exception", e);
+            }
         }
     }
 
+    /**
+     * Binds this configuration value to a registry, which from now on holds the loaded value at the specified index
+     * of its {@link ConfigurationSnapshot snapshots}.
+     * @param registry the registry this value is registered with
+     * @param index the index of this value in the snapshots of the registry
+     */
+    void bind(ConfigurationRegistry registry, int index) {
+        this.index = index;
+        this.registry = registry; // volatile write publishes the index
+    }
+
+    /**
+     * @return the registry this value is registered with, or null
+     */
+    ConfigurationRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return the index of this value in the snapshots of its registry
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return true if this value has been registered with a {@link ConfigurationRegistry}
+     */
+    boolean isRegistered() {
+        return registry != null;
+    }
+
     /**
      * Parses a user-entered string to a new value, and sets this configuration value.
      * <p><b>Note:</b></p> unlike other methods, this method automatically calls {@link Plugin#reloadConfig()} before and
-     * {@link Plugin#saveConfig()} after performing the set operation, under the assumption that
+     * saves the file after performing the set operation, under the assumption that
      * parsing user input will not happen inside a loop.
-     * Changes will be reflected in the {@code config.yml} file immediately.
+     * Changes will be reflected in the {@code config.yml} file immediately. Only this value is patched into the file,
+     * which preserves its comments; if that is not possible, the file is saved with {@link Plugin#saveConfig()}.
+     * <p>If this value is registered with a registry that has {@link ConfigurationRegistry#enableWriteBehind(long)
+     * write-behind} enabled, the file is neither read nor written on the calling thread; the change is instead
+     * saved shortly after by the {@link ConfigurationSaver}.
      * @param input user input to be parsed, null if the value should be reset
      * @throws ArgumentParseException if the input could not be parsed
      */
     @SuppressWarnings("unused")
     public void parseAndSet(String input) throws ArgumentParseException {
+        if (getSaver() != null) {
+            set(parse(input));
+            return;
+        }
         plugin.reloadConfig();
         T newValue = parse(input);
         set(newValue);
-        plugin.saveConfig();
+        ConfigurationRegistry registry = this.registry;
+        if (registry != null) {
+            registry.saveConfig("set", Collections.singleton(path)); // measured by the metrics of the registry
+            return;
+        }
+        ConfigurationEvents.Save event = ConfigurationEvents.beginSave();
+        ConfigurationSaver.saveConfig(plugin, Collections.singleton(path));
+        ConfigurationEvents.commitSave(event, "set", 1);
     }
 
     /**
      * Validates and sets this configuration value to a new value.
      * <p><b>Note:</b></p> it is the responsibility of the developer to call {@link Plugin#reloadConfig()}
      * before using this method, to ensure that the most recent version of the {@code config.yml} file is loaded into memory,
-     * as well as {@link Plugin#saveConfig()} afterwards to finally persist any changes into the file.
+     * as well as {@link Plugin#saveConfig()} afterwards to finally persist any changes into the file,
+     * unless write-behind is {@link ConfigurationRegistry#enableWriteBehind(long) enabled} for the registry of this value.
      * <p>If multiple values are to be set consecutively, it is best practice to call {@link Plugin#reloadConfig() reloadConfig}
      * once at the very beginning, and {@link Plugin#saveConfig() saveConfig} once at the very end.
      * @param newValue the new value
@@ -109,25 +681,29 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
     public void set(T newValue) {
         newValue = validate(newValue);
         beforeSet();
-        loadedValue = newValue;
+        Object oldValue = swapLoadedValue(retain(newValue, null), null);
         write(newValue);
         afterSet();
+        fireChange(oldValue, newValue);
     }
 
     /**
      * Resets this configuration value to the default.
      * <p><b>Note:</b></p> it is the responsibility of the developer to call {@link Plugin#reloadConfig()}
      * before using this method, to ensure that the most recent version of the {@code config.yml} file is loaded into memory,
-     * as well as {@link Plugin#saveConfig()} afterwards to finally persist any changes into the file.
+     * as well as {@link Plugin#saveConfig()} afterwards to finally persist any changes into the file,
+     * unless write-behind is {@link ConfigurationRegistry#enableWriteBehind(long) enabled} for the registry of this value.
      * <p>If multiple values are to be reset consecutively, it is best practice to call {@link Plugin#reloadConfig() reloadConfig}
      * once at the very beginning, and {@link Plugin#saveConfig() saveConfig} once at the very end.
      */
     @SuppressWarnings("unused")
     public void reset() {
         beforeSet();
-        loadedValue = defaultValue;
+        T defaultValue = getDefaultValue();
+        Object oldValue = swapLoadedValue(retain(defaultValue, null), null);
         write(defaultValue);
         afterSet();
+        fireChange(oldValue, defaultValue);
     }
 
     /**
@@ -138,12 +714,7 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
      * @return the input, or a validated replacement
      */
     protected T validate(T value) {
-        try {
-            validate(value, getBounds());
-            return value;
-        } catch (ValueOutOfBoundsException e) {
-            return e.getReplacement();
-        }
+        return enforce(value, getCompiledBound());
     }
 
     /**
@@ -151,7 +722,52 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
      * @param t the value to be written
      */
     private void write(T t) {
-        plugin.getConfig().set(path, convertToFileData(t));
+        Object fileData = convertToFileData(t);
+        plugin.getConfig().set(path, fileData);
+        ConfigurationSaver saver = getSaver();
+        if (saver != null)
+            saver.enqueue(path, fileData);
+    }
+
+    /**
+     * @return the metrics of the registry of this value, or null if there are none
+     */
+    private ConfigurationMetrics getMetrics() {
+        ConfigurationRegistry registry = this.registry;
+        return registry == null ? null : registry.getMetrics();
+    }
+
+    /**
+     * Records the outcome of loading this value, if the registry of this value has metrics enabled.
+     * @param outcome the outcome of the load
+     */
+    void recordLoad(ConfigurationMetrics.Outcome outcome) {
+        ConfigurationMetrics metrics = getMetrics();
+        if (metrics != null)
+            metrics.recordLoad(path, outcome);
+    }
+
+    /**
+     * @return the write-behind saver of the registry of this value, or null if there is none
+     */
+    private ConfigurationSaver getSaver() {
+        ConfigurationRegistry registry = this.registry;
+        return registry == null ? null : registry.getSaver();
+    }
+
+    /**
+     * Writes a value to the provided {@link FileConfiguration} at the corresponding path,
+     * unless an equal object is already stored there.
+     * @param config the configuration to write to
+     * @param t the value to be written
+     * @return true if the configuration was changed
+     */
+    private boolean write(FileConfiguration config, T t) {
+        Object fileData = convertToFileData(t);
+        if (Objects.equals(config.get(path, null), fileData))
+            return false;
+        config.set(path, fileData);
+        return true;
     }
 
     /**
@@ -163,6 +779,7 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
 
     /**
      * An action to be taken after every time this configuration value is set to a new value.
+     * To also be notified of reloads, or to receive the old and new values, use {@link #addListener(ChangeListener)}.
      */
     protected void afterSet() {
 
@@ -179,23 +796,37 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
     }
 
     /**
-     * Reads and reconstructs the value currently stored in the {@link FileConfiguration} under the given path.
-     * @param config the plugin {@link FileConfiguration}, findable with {@link Plugin#getConfig()}
-     * @param path the path where the value is located
-     * @return the reconstructed value currently stored in the {@code config.yml} file
-     * @throws MissingValueException if the value is missing from the file
-     * @throws ValueOutOfBoundsException if the value is not within its bounds
+     * Reconstructs a value from the object stored in the {@link FileConfiguration}, converting and validating it.
+     * Repairs made along the way are recorded in the returned buffer rather than thrown.
+     * @param o the object stored in the {@code config.yml} file
+     * @return a buffer containing the reconstructed value
      * @throws UnreadableValueException if the value is uninterpretable
      */
-    T read(FileConfiguration config, String path)
-            throws MissingValueException, ValueOutOfBoundsException, UnreadableValueException {
-        Object o = config.get(path, null); // preserve nullability
-        if (o == null)
-            throw new MissingValueException(); // value is not present in the file
-        return new ExceptionBuffer<>(o)
-                .convert(this::convert)
-                .validate(getBounds())
-                .getOrThrow();
+    ExceptionBuffer<T> read(Object o) throws UnreadableValueException {
+        ConfigurationMetrics metrics = getMetrics();
+        if (metrics == null && !ConfigurationEvents.AVAILABLE)
+            return new ExceptionBuffer<>(o)
+                    .convert(this::convert)
+                    .validate(getCompiledBound());
+        long start = metrics == null ? 0 : System.nanoTime();
+        ConfigurationEvents.Convert convertEvent = ConfigurationEvents.beginConvert();
+        ExceptionBuffer<T> buffer;
+        String outcome = "unreadable";
+        try {
+            buffer = new ExceptionBuffer<>(o).convert(this::convert);
+            outcome = buffer.isRepaired() ? "repaired" : "ok";
+        } finally {
+            ConfigurationEvents.commitConvert(convertEvent, path, o, outcome);
+            if (metrics != null)
+                metrics.recordLatency(ConfigurationMetrics.Phase.CONVERT, System.nanoTime() - start);
+        }
+        start = metrics == null ? 0 : System.nanoTime();
+        ConfigurationEvents.Validate validateEvent = ConfigurationEvents.beginValidate();
+        T validated = buffer.validate(getCompiledBound()).get();
+        ConfigurationEvents.commitValidate(validateEvent, path, validated, buffer.isRepairedByBound());
+        if (metrics != null)
+            metrics.recordLatency(ConfigurationMetrics.Phase.VALIDATE, System.nanoTime() - start);
+        return buffer;
     }
 
     /**
@@ -222,14 +853,51 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
     }
 
     /**
-     * Throws an {@link ValueOutOfBoundsException} if the provided value does not adhere to one or more of the provided bounds.
-     * The exception will contain a replacement value to use instead.
+     * Enforces a compiled bound on a value. If the bound {@link Bound#alwaysPasses() always passes},
+     * validation is skipped entirely.
      * @param t the value to validate
-     * @throws ValueOutOfBoundsException if the value is outside its bounds
+     * @param bound the compiled bound to enforce
+     * @return the very same value if it adheres to the bound, or a replacement otherwise
      */
-    static <T> void validate(T t, List<Bound<T>> bounds) throws ValueOutOfBoundsException {
-        if (bounds.size() > 0)
-            new ExceptionBuffer<>(t).validate(bounds).getOrThrow();
+    static <T> T enforce(T t, Bound<T> bound) {
+        if (bound == Bound.alwaysPasses())
+            return t;
+        return bound.enforce(t);
+    }
+
+    /**
+     * Enforces a compiled bound on a value, raising the provided flag if the value had to be repaired.
+     * @param t the value to validate
+     * @param bound the compiled bound to enforce
+     * @param repaired the flag to raise if the value is repaired
+     * @return the value if it adheres to the bound, or a replacement otherwise
+     * @see Bound#enforce(Object, RepairFlag)
+     */
+    static <T> T enforce(T t, Bound<T> bound, RepairFlag repaired) {
+        if (bound == Bound.alwaysPasses())
+            return t;
+        return bound.enforce(t, repaired);
+    }
+
+    /**
+     * Resolves the {@link #getBounds() bounds} of this configuration value and combines them into a single bound,
+     * which is used for all validation until the bounds are compiled again.
+     * This happens when the bounds are first needed, and again whenever this value is registered or reloaded.
+     */
+    void compileBounds() {
+        compiledBound = Bound.allOf(getBounds());
+    }
+
+    /**
+     * @return the compiled bound of this configuration value, compiling it first if necessary
+     */
+    Bound<T> getCompiledBound() {
+        Bound<T> bound = compiledBound;
+        if (bound == null) {
+            compileBounds();
+            bound = compiledBound;
+        }
+        return bound;
     }
 
     /**
@@ -238,6 +906,8 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
      * in the list, the next bound will validate its replacement.
      * By default, this method returns a singleton list of the Bound provided by {@link #getBound()}.
      * Therefore, if the configuration value only requires a single Bound, override that method instead.
+     * <p>The bounds are not resolved on every validation; this method is called once when the bounds are first needed,
+     * and again whenever this value is registered with a {@link ConfigurationRegistry} or reloaded.
      * @return a list of Bounds for this configuration value
      */
     protected List<Bound<T>> getBounds() {
@@ -265,6 +935,14 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
         return t;
     }
 
+    /**
+     * Gets the plugin this configuration value belongs to.
+     * @return the plugin instance
+     */
+    Plugin getPlugin() {
+        return plugin;
+    }
+
     /**
      * Gets the path of this configuration value where it can be found in the {@code config.yml} file.
      * @return the path of this configuration value
@@ -278,12 +956,26 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
      * @return the default value of this configuration value
      */
     public T getDefaultValue() {
+        if (!defaultValidated)
+            validateDefaultValue();
         return defaultValue;
     }
 
+    /**
+     * Validates the default value of a {@link #isLazy() lazy} value on first use.
+     */
+    private synchronized void validateDefaultValue() {
+        if (defaultValidated)
+            return;
+        defaultValue = validate(defaultValue);
+        defaultValidated = true; // volatile write publishes the validated default value
+    }
+
     /**
      * Gets a list of tab-completions to be shown to a player typing in a command.
      * By default, this returns a formatted list of the current value and the default value of this configuration value.
+     * Both are formatted only once; the current value is formatted again only after it was set or reloaded.
+     * For completions over a larger domain of candidates, see {@link CompletionIndex}.
      * This method may be overridden at will; it is not used by the rest of this library.
      * @param player the player typing in the command
      * @param args the arguments the player has typed so far
@@ -291,7 +983,10 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
      */
     @SuppressWarnings("unused")
     public List<String> getTabCompletions(Player player, String[] args) {
-        return Arrays.asList(toString(), format(defaultValue));
+        String formattedDefaultValue = this.formattedDefaultValue;
+        if (formattedDefaultValue == null)
+            this.formattedDefaultValue = formattedDefaultValue = format(getDefaultValue());
+        return Arrays.asList(toString(), formattedDefaultValue);
     }
 
     /**
@@ -304,11 +999,15 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
     }
 
     /**
-     * @return the formatted current state of this configuration value
+     * @return the formatted current state of this configuration value, which is cached until the value changes
      */
     @Override
     public String toString() {
-        return format(get());
+        Object retained = getRetained();
+        Derived<String> formattedValue = this.formattedValue;
+        if (formattedValue == null || !formattedValue.isDerivedFrom(retained))
+            this.formattedValue = formattedValue = new Derived<>(retained, format(resolve(retained)));
+        return formattedValue.get();
     }
 
     @Override
@@ -319,12 +1018,12 @@ public abstract class ConfigurationValue<T> implements Supplier<T> {
             return false;
 
         ConfigurationValue<?> other = (ConfigurationValue<?>) o;
-        return Objects.equals(path, other.path) && Objects.equals(defaultValue, other.defaultValue);
+        return Objects.equals(path, other.path) && Objects.equals(getDefaultValue(), other.getDefaultValue());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(path, defaultValue);
+        return Objects.hash(path, getDefaultValue());
     }
 
 }
@@ -0,0 +1,168 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches the {@code config.yml} file of a plugin for changes, and reloads all values of a {@link ConfigurationRegistry}
+ * when the file is edited.
+ * Bursts of file system events, as produced by editors when saving, are debounced into a single reload, and the
+ * reload is skipped entirely if the content of the file did not actually change.
+ * <p>Watching is opt-in; call {@link #start()} to begin watching, and {@link #stop()} when the plugin is disabled.
+ */
+public class ConfigurationWatcher {
+
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private final ConfigurationRegistry registry;
+    private final long debounceMillis;
+    private final Path file;
+    private volatile WatchService watchService;
+    private volatile byte[] lastHash;
+
+    public ConfigurationWatcher(ConfigurationRegistry registry) {
+        this(registry, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Creates a new watcher for the {@code config.yml} file of the plugin of the provided registry.
+     * @param registry the registry to reload when the file changes
+     * @param debounceMillis the time in milliseconds the file must remain unchanged before it is reloaded
+     */
+    public ConfigurationWatcher(ConfigurationRegistry registry, long debounceMillis) {
+        this.registry = registry;
+        this.debounceMillis = debounceMillis;
+        this.file = new File(registry.getPlugin().getDataFolder(), "config.yml").toPath();
+    }
+
+    /**
+     * Starts watching the {@code config.yml} file on a new daemon thread.
+     * @throws IOException if the data folder of the plugin could not be watched
+     * @throws IllegalStateException if this watcher has already been started
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null)
+            throw new IllegalStateException("Watcher has already been started");
+        synchronized (registry.getFileLock()) {
+            lastHash = hash();
+        }
+        WatchService watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchService = watchService;
+        registry.setWatcher(this);
+        Thread thread = new Thread(() -> watch(watchService), registry.getPlugin().getName() + " Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the {@code config.yml} file. Reloads already in progress are not interrupted.
+     */
+    public synchronized void stop() {
+        if (watchService == null)
+            return;
+        registry.setWatcher(null);
+        try {
+            watchService.close();
+        } catch (IOException ignored) {}
+        watchService = null;
+    }
+
+    /**
+     * @return true if this watcher is currently watching the file
+     */
+    public boolean isWatching() {
+        return watchService != null;
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                if (!drainEvents(watchService.take()))
+                    continue;
+                // Debounce: wait until the file remains unchanged for the debounce period;
+                // events concerning other files in the data folder do not extend the wait
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key == null)
+                        break;
+                    if (drainEvents(key))
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                }
+                reloadIfChanged();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher was stopped
+        }
+    }
+
+    /**
+     * Drains the events of a watch key and resets it.
+     * @param key the watch key
+     * @return true if any of the events concerned the {@code config.yml} file
+     */
+    private boolean drainEvents(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents())
+            if (file.getFileName().equals(event.context()))
+                changed = true;
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Reloads the registry on the server thread if the content of the {@code config.yml} file changed since it was
+     * last loaded or written by the plugin. The file is hashed on the watcher thread, so that unchanged files never
+     * reach the server thread.
+     */
+    private void reloadIfChanged() {
+        synchronized (registry.getFileLock()) { // a write of our own is recorded before the lock is released
+            byte[] hash = hash();
+            if (hash == null || Arrays.equals(hash, lastHash))
+                return;
+            lastHash = hash;
+        }
+        Plugin plugin = registry.getPlugin();
+        if (!plugin.isEnabled())
+            return;
+        // the reload compiles bounds and takes its base snapshot on the calling thread, which must be the server thread
+        Bukkit.getScheduler().runTask(plugin, () -> registry.reloadAsync().whenComplete((saved, e) -> {
+            if (e != null)
+                plugin.getLogger().log(Level.WARNING, "Failed to reload the edited config.yml", e);
+        }));
+    }
+
+    /**
+     * Records the current content of the {@code config.yml} file as written by the plugin itself, so that the write
+     * does not trigger a reload. Called by the registry while holding its file lock.
+     */
+    void recordWrite() {
+        lastHash = hash();
+    }
+
+    /**
+     * Computes a hash of the current content of the {@code config.yml} file.
+     * @return the hash, or null if the file could not be read
+     */
+    private byte[] hash() {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return new byte[0];
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+}
@@ -3,9 +3,13 @@ package com.monst.pluginconfiguration;
 import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import com.monst.pluginconfiguration.validation.Bound;
+import com.monst.pluginconfiguration.validation.RepairFlag;
 
-import java.util.List;
-
+/**
+ * Carries a value through conversion and validation, recording whether it had to be repaired along the way
+ * instead of propagating {@link ValueOutOfBoundsException}s.
+ * A single buffer is reused for every step.
+ */
 class ExceptionBuffer<T> {
 
     @FunctionalInterface
@@ -13,41 +17,44 @@ class ExceptionBuffer<T> {
         T convert(Object o) throws ValueOutOfBoundsException, UnreadableValueException;
     }
 
-    private T t;
-    private boolean encounteredException = false;
-
-    ExceptionBuffer(T t) {
-        this.t = t;
-    }
+    private Object t;
+    private boolean converterRepaired = false;
+    private final RepairFlag boundRepaired = new RepairFlag();
 
-    private ExceptionBuffer(T t, boolean encounteredException) {
+    ExceptionBuffer(Object t) {
         this.t = t;
-        this.encounteredException = encounteredException;
     }
 
+    @SuppressWarnings("unchecked")
     <R> ExceptionBuffer<R> convert(Converter<R> converter) throws UnreadableValueException {
         try {
-            return new ExceptionBuffer<>(converter.convert(t), encounteredException);
+            t = converter.convert(t);
         } catch (ValueOutOfBoundsException e) {
-            return new ExceptionBuffer<>(e.getReplacement(), true);
+            t = e.getReplacement();
+            converterRepaired = true;
         }
+        return (ExceptionBuffer<R>) this;
     }
 
-    ExceptionBuffer<T> validate(List<Bound<T>> bounds) {
-        for (Bound<T> bound : bounds)
-            try {
-                bound.check(t);
-            } catch (ValueOutOfBoundsException e) {
-                t = e.getReplacement();
-                encounteredException = true;
-            }
+    ExceptionBuffer<T> validate(Bound<T> bound) {
+        t = ConfigurationValue.enforce(get(), bound, boundRepaired);
         return this;
     }
 
-    T getOrThrow() throws ValueOutOfBoundsException {
-        if (encounteredException)
-            throw new ValueOutOfBoundsException(t);
-        return t;
+    boolean isRepaired() {
+        return converterRepaired || boundRepaired.isRaised();
+    }
+
+    /**
+     * @return true if the value was repaired by a bound, rather than during conversion
+     */
+    boolean isRepairedByBound() {
+        return boundRepaired.isRaised();
+    }
+
+    @SuppressWarnings("unchecked")
+    T get() {
+        return (T) t;
     }
 
 }
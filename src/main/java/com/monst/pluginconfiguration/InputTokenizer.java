@@ -0,0 +1,61 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.exception.ArgumentParseException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Splits user input into the individual elements of a {@link ConfigurationCollection}.
+ * Each element is passed to a {@link TokenConsumer} as soon as it is found, without collecting the elements in an
+ * intermediate array first.
+ * @see ConfigurationCollection#getTokenizer()
+ */
+@FunctionalInterface
+public interface InputTokenizer {
+
+    /**
+     * Receives the elements found by an {@link InputTokenizer}, in order.
+     */
+    @FunctionalInterface
+    interface TokenConsumer {
+        void accept(String token) throws ArgumentParseException;
+    }
+
+    /**
+     * Splits the input into elements and passes each of them to the consumer.
+     * @param input the user input
+     * @param consumer the consumer to pass the elements to
+     * @throws ArgumentParseException if the consumer could not parse an element
+     */
+    void tokenize(String input, TokenConsumer consumer) throws ArgumentParseException;
+
+    /**
+     * Returns the default tokenizer, which splits by commas, or whitespace, or both.
+     * It is equivalent to splitting with {@link String#split(String)} and the regular expression
+     * {@code "\\s*(,|\\s)\\s*"}, but does not use regular expressions at all.
+     * @return a tokenizer that splits by commas or whitespace
+     */
+    static InputTokenizer commasOrWhitespace() {
+        return SplitTokenizer.COMMAS_OR_WHITESPACE;
+    }
+
+    /**
+     * Creates a tokenizer that splits around matches of a regular expression, like {@link String#split(String)}.
+     * The expression is compiled once, when the tokenizer is created.
+     * @param regex the delimiting regular expression
+     * @return a tokenizer that splits around matches of the expression
+     */
+    static InputTokenizer splittingOn(String regex) {
+        return splittingOn(Pattern.compile(regex));
+    }
+
+    /**
+     * Creates a tokenizer that splits around matches of a pattern, like {@link Pattern#split(CharSequence)}.
+     * @param pattern the delimiting pattern
+     * @return a tokenizer that splits around matches of the pattern
+     */
+    static InputTokenizer splittingOn(Pattern pattern) {
+        return new SplitTokenizer(pattern);
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.monst.pluginconfiguration;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with one bucket per power of two.
+ * Recording a duration increments striped counters only, so that concurrent recorders never contend.
+ * Percentiles are therefore approximated by the upper bound of the bucket they fall into.
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Records a single duration.
+     * @param nanos the duration in nanoseconds
+     */
+    void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0; // System.nanoTime() is not guaranteed to be monotonic across threads
+        buckets[BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Summarizes the durations recorded so far. Durations recorded concurrently may or may not be included.
+     * @return the statistics of this histogram
+     */
+    LatencyStatistics statistics() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += counts[i] = buckets[i].sum();
+        if (count == 0)
+            return new LatencyStatistics(0, 0, 0, 0, 0, 0);
+        long max = this.max.get();
+        return new LatencyStatistics(count, total.sum() / count, max, percentile(counts, count, 0.5, max),
+                percentile(counts, count, 0.9, max), percentile(counts, count, 0.99, max));
+    }
+
+    private static long percentile(long[] counts, long count, double percentile, long max) {
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min((1L << (i + 1)) - 1, max); // the upper bound of the bucket
+        }
+        return max;
+    }
+
+    /**
+     * Discards all recorded durations.
+     */
+    void reset() {
+        for (LongAdder bucket : buckets)
+            bucket.reset();
+        total.reset();
+        max.reset();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.monst.pluginconfiguration;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A summary of the durations recorded for a phase of loading or saving configuration values.
+ * Percentiles are approximate; they are rounded up to the next power of two, but never exceed the maximum.
+ * @see ConfigurationMetricsMXBean
+ */
+public final class LatencyStatistics {
+
+    private final long count;
+    private final long meanNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+
+    @ConstructorProperties({ "count", "meanNanos", "maxNanos", "p50Nanos", "p90Nanos", "p99Nanos" })
+    public LatencyStatistics(long count, long meanNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean duration in nanoseconds
+     */
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    /**
+     * @return the longest duration in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return the approximate median duration in nanoseconds
+     */
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * @return the approximate 90th percentile duration in nanoseconds
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * @return the approximate 99th percentile duration in nanoseconds
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStatistics{count=" + count + ", mean=" + meanNanos + "ns, max=" + maxNanos + "ns, p50="
+                + p50Nanos + "ns, p90=" + p90Nanos + "ns, p99=" + p99Nanos + "ns}";
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.exception.ArgumentParseException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An {@link InputTokenizer} that produces exactly the same elements as {@link String#split(String)}:
+ * a leading empty element is produced only by a delimiter of positive width at the beginning of the input,
+ * trailing empty elements are dropped, and input without any delimiter is a single element.
+ * <p>Without a pattern, the delimiter {@code \s*(,|\s)\s*} is matched by hand.
+ */
+final class SplitTokenizer implements InputTokenizer {
+
+    static final SplitTokenizer COMMAS_OR_WHITESPACE = new SplitTokenizer(null);
+
+    private final Pattern pattern;
+
+    SplitTokenizer(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public void tokenize(String input, TokenConsumer consumer) throws ArgumentParseException {
+        if (pattern == null)
+            splitOnCommasOrWhitespace(input, consumer);
+        else
+            splitOnPattern(input, consumer);
+    }
+
+    private static void splitOnCommasOrWhitespace(String input, TokenConsumer consumer) throws ArgumentParseException {
+        int length = input.length();
+        int start = 0;
+        int pendingEmpty = 0;
+        boolean delimited = false;
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c != ',' && !isWhitespace(c))
+                continue;
+            int end = skipWhitespace(input, i);
+            if (end < length && input.charAt(end) == ',')
+                end = skipWhitespace(input, end + 1);
+            pendingEmpty = emit(input.substring(start, i), pendingEmpty, consumer);
+            delimited = true;
+            start = end;
+            i = end - 1;
+        }
+        finish(input, start, delimited, pendingEmpty, consumer);
+    }
+
+    private void splitOnPattern(String input, TokenConsumer consumer) throws ArgumentParseException {
+        Matcher matcher = pattern.matcher(input);
+        int start = 0;
+        int pendingEmpty = 0;
+        boolean delimited = false;
+        while (matcher.find()) {
+            if (matcher.end() == 0)
+                continue; // a zero-width match at the beginning never produces an empty leading element
+            pendingEmpty = emit(input.substring(start, matcher.start()), pendingEmpty, consumer);
+            delimited = true;
+            start = matcher.end();
+        }
+        finish(input, start, delimited, pendingEmpty, consumer);
+    }
+
+    /**
+     * Passes an element to the consumer, unless it is empty, in which case it is held back until it is known
+     * not to be a trailing empty element.
+     * @return the number of empty elements still held back
+     */
+    private static int emit(String token, int pendingEmpty, TokenConsumer consumer) throws ArgumentParseException {
+        if (token.isEmpty())
+            return pendingEmpty + 1;
+        for (; pendingEmpty > 0; pendingEmpty--)
+            consumer.accept("");
+        consumer.accept(token);
+        return 0;
+    }
+
+    private static void finish(String input, int start, boolean delimited, int pendingEmpty, TokenConsumer consumer)
+            throws ArgumentParseException {
+        if (!delimited)
+            consumer.accept(input);
+        else if (start < input.length())
+            emit(input.substring(start), pendingEmpty, consumer);
+    }
+
+    private static int skipWhitespace(String input, int from) {
+        while (from < input.length() && isWhitespace(input.charAt(from)))
+            from++;
+        return from;
+    }
+
+    /**
+     * @return true if the character is matched by {@code \s}
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+}
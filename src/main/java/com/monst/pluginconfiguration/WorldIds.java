@@ -0,0 +1,45 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.World;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns compact, stable integer ids to worlds by name, which index the
+ * {@link ConfigurationValue#get(int) per-world overrides} of configuration values.
+ * Ids are assigned in order of first use, starting at 0, and never change for the lifetime of the server,
+ * even if a world is unloaded and loaded again.
+ * <p>Looking up an id costs a hash lookup; in hot paths such as event handlers, look up the id of a world once and
+ * then read every configuration value with {@link ConfigurationValue#get(int)}, which costs a single array load.
+ */
+public final class WorldIds {
+
+    private static final ConcurrentMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private WorldIds() {}
+
+    /**
+     * Gets the id of a world by name, assigning a new id if the name was never seen before.
+     * @param worldName the name of the world
+     * @return the id of the world
+     */
+    public static int of(String worldName) {
+        Integer id = IDS.get(worldName);
+        if (id != null)
+            return id;
+        return IDS.computeIfAbsent(worldName, name -> NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * Gets the id of a world, assigning a new id if the world was never seen before.
+     * @param world the world
+     * @return the id of the world
+     */
+    public static int of(World world) {
+        return of(world.getName());
+    }
+
+}
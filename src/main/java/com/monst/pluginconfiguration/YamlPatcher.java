@@ -0,0 +1,229 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Patches the value of a single key in the text of a YAML document, leaving the rest of the document,
+ * including comments and formatting, untouched.
+ * <p>Only plain block mappings are navigated, and only values that are written on a single line or as a
+ * block sequence are replaced. Whenever the document is structured in a way that cannot be patched safely,
+ * e.g. because the key is missing or its value is a multi-line scalar, no patch is made and the caller must
+ * fall back to serializing the whole document.
+ */
+final class YamlPatcher {
+
+    private static final String DUMP_KEY = "v";
+
+    private final String text;
+    private final String lineSeparator;
+    private final int[] lineStarts;
+    private final int[] lineEnds; // exclusive, before any line separator
+
+    private YamlPatcher(String text) {
+        this.text = text;
+        this.lineSeparator = text.contains("\r\n") ? "\r\n" : "\n";
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int newline = text.indexOf('\n', start);
+            int end = newline < 0 ? text.length() : newline;
+            starts.add(start);
+            ends.add(end > start && text.charAt(end - 1) == '\r' ? end - 1 : end);
+            start = end + 1;
+        }
+        this.lineStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        this.lineEnds = ends.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Replaces the value under the specified path in a YAML document.
+     * @param text the current text of the document
+     * @param path the path of the key, with sections separated by {@code .}
+     * @param fileData the new value, as it would be passed to {@link ConfigurationSection#set(String, Object)}
+     * @return the patched document, or null if the document could not be patched safely
+     */
+    static String patch(String text, String path, Object fileData) {
+        if (fileData == null || fileData instanceof Map || fileData instanceof ConfigurationSection)
+            return null;
+        return new YamlPatcher(text).patch(path.split("\\."), fileData);
+    }
+
+    private String patch(String[] keys, Object fileData) {
+        int keyLine = findKey(keys);
+        if (keyLine < 0)
+            return null;
+        int indent = indentOf(keyLine);
+        int valueStart = keyEnd(keyLine, keys[keys.length - 1]);
+        int commentStart = commentStart(valueStart, lineEnds[keyLine]);
+        if (commentStart < 0)
+            return null; // unterminated quoted scalar
+        String oldValue = text.substring(valueStart, commentStart).trim();
+        if (!oldValue.isEmpty() && "|>&*!".indexOf(oldValue.charAt(0)) >= 0)
+            return null; // block scalars, anchors, aliases and tags are not supported
+        if (oldValue.startsWith("[") && !oldValue.endsWith("]") || oldValue.startsWith("{") && !oldValue.endsWith("}"))
+            return null; // multi-line flow collection
+
+        // Determine the last line belonging to the old value
+        int lastLine = keyLine;
+        for (int i = keyLine + 1; i < lineStarts.length; i++) {
+            if (isBlankOrComment(i))
+                continue;
+            int lineIndent = indentOf(i);
+            boolean sequenceItem = lineIndent == indent && isSequenceItem(i, lineIndent);
+            if (lineIndent <= indent && !sequenceItem)
+                break;
+            if (!oldValue.isEmpty())
+                return null; // multi-line scalar
+            lastLine = i;
+        }
+
+        String[] rendered = render(fileData);
+        if (rendered == null)
+            return null;
+        String comment = text.substring(commentStart, lineEnds[keyLine]);
+        boolean continued = rendered.length > 1;
+        if (continued && !rendered[0].isEmpty() && !comment.trim().isEmpty())
+            return null; // the comment would end up inside the value
+
+        StringBuilder patched = new StringBuilder(text.length() + 64);
+        patched.append(text, 0, valueStart);
+        if (!rendered[0].isEmpty())
+            patched.append(' ').append(rendered[0]);
+        patched.append(comment);
+        String padding = spaces(indent);
+        for (int i = 1; i < rendered.length; i++)
+            patched.append(lineSeparator).append(padding).append(rendered[i]);
+        patched.append(text, lineEnds[lastLine], text.length());
+        return patched.toString();
+    }
+
+    /**
+     * Navigates the block mappings of the document along the provided keys.
+     * @return the index of the line containing the last key, or -1 if it could not be found
+     */
+    private int findKey(String[] keys) {
+        int parentIndent = -1;
+        int from = 0;
+        int keyLine = -1;
+        for (String key : keys) {
+            keyLine = -1;
+            int childIndent = -1;
+            for (int i = from; i < lineStarts.length; i++) {
+                if (isBlankOrComment(i))
+                    continue;
+                int indent = indentOf(i);
+                if (indent <= parentIndent)
+                    break; // end of the parent section
+                if (childIndent < 0)
+                    childIndent = indent;
+                if (indent == childIndent && keyEnd(i, key) >= 0) {
+                    keyLine = i;
+                    break;
+                }
+            }
+            if (keyLine < 0)
+                return -1;
+            parentIndent = indentOf(keyLine);
+            from = keyLine + 1;
+        }
+        return keyLine;
+    }
+
+    /**
+     * @return the offset right after the colon of the key on the specified line, or -1 if the line is not that key
+     */
+    private int keyEnd(int line, String key) {
+        int start = lineStarts[line] + indentOf(line);
+        for (String candidate : new String[] { key, '\'' + key + '\'', '"' + key + '"' }) {
+            int colon = start + candidate.length();
+            if (text.startsWith(candidate, start) && colon < lineEnds[line]
+                    && text.charAt(colon) == ':' && (colon + 1 == lineEnds[line] || text.charAt(colon + 1) == ' '))
+                return colon + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the start of a trailing comment, including the whitespace preceding it.
+     * @return the offset of the comment, the end of the line if there is none, or -1 if a quoted scalar is unterminated
+     */
+    private int commentStart(int from, int lineEnd) {
+        int i = from;
+        while (i < lineEnd && text.charAt(i) == ' ')
+            i++;
+        if (i < lineEnd && (text.charAt(i) == '\'' || text.charAt(i) == '"')) {
+            char quote = text.charAt(i++);
+            while (true) {
+                if (i >= lineEnd)
+                    return -1;
+                char c = text.charAt(i++);
+                if (c == '\\' && quote == '"')
+                    i++;
+                else if (c == quote) {
+                    if (quote == '\'' && i < lineEnd && text.charAt(i) == '\'')
+                        i++; // escaped single quote
+                    else
+                        break;
+                }
+            }
+        }
+        for (; i < lineEnd; i++)
+            if (text.charAt(i) == '#' && (i == from || text.charAt(i - 1) == ' ')) {
+                int start = i;
+                while (start > from && text.charAt(start - 1) == ' ')
+                    start--;
+                return start;
+            }
+        return lineEnd;
+    }
+
+    private boolean isBlankOrComment(int line) {
+        String content = text.substring(lineStarts[line], lineEnds[line]).trim();
+        return content.isEmpty() || content.startsWith("#");
+    }
+
+    private boolean isSequenceItem(int line, int indent) {
+        int start = lineStarts[line] + indent;
+        return text.charAt(start) == '-' && (start + 1 == lineEnds[line] || text.charAt(start + 1) == ' ');
+    }
+
+    private int indentOf(int line) {
+        int i = lineStarts[line];
+        while (i < lineEnds[line] && text.charAt(i) == ' ')
+            i++;
+        return i - lineStarts[line];
+    }
+
+    /**
+     * Renders file data the way it would be serialized by Bukkit.
+     * @return the text following the colon on the key line, followed by any continuation lines relative to the
+     * indentation of the key, or null if the data could not be rendered
+     */
+    private static String[] render(Object fileData) {
+        YamlConfiguration dump = new YamlConfiguration();
+        dump.set(DUMP_KEY, fileData);
+        String[] lines = dump.saveToString().split("\r?\n");
+        if (lines.length == 0 || !lines[0].startsWith(DUMP_KEY + ":"))
+            return null;
+        List<String> rendered = new ArrayList<>();
+        rendered.add(lines[0].substring(DUMP_KEY.length() + 1).trim());
+        for (int i = 1; i < lines.length; i++)
+            if (!lines[i].isEmpty())
+                rendered.add(lines[i]);
+        return rendered.toArray(new String[0]);
+    }
+
+    private static String spaces(int count) {
+        char[] spaces = new char[count];
+        Arrays.fill(spaces, ' ');
+        return new String(spaces);
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.monst.pluginconfiguration;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the elements of a list in a YAML document one at a time, directly from the event stream of the parser.
+ * Neither the node tree of the document nor the list itself are ever built in memory, so a list of any length can be
+ * read with constant memory.
+ * <p>Scalar elements are resolved to the same types Bukkit would load them as, i.e. {@link Integer}, {@link Long},
+ * {@link BigInteger}, {@link Double}, {@link Boolean} or {@link String}. If the value under the path is a single
+ * scalar instead of a list, that scalar is the only element.
+ * <p>Anything that cannot be resolved exactly as Bukkit would from the event stream alone, i.e. aliases, merge keys,
+ * explicit tags, nulls, nested collections and exotic number notations, causes an {@link UnstreamableException}, after
+ * which the value must be loaded from the whole document instead.
+ * A {@link YAMLException} is thrown from {@link #hasNext()} or {@link #next()} if the document turns out to be
+ * malformed while it is being read.
+ */
+final class YamlSequenceReader implements Iterator<Object>, Closeable {
+
+    /**
+     * Thrown when the value under the path uses a feature of YAML that cannot be streamed.
+     */
+    static final class UnstreamableException extends RuntimeException {
+        private UnstreamableException(Event event) {
+            super("Cannot stream " + event, null, false, false);
+        }
+    }
+
+    private static final Resolver RESOLVER = new Resolver();
+
+    private final Reader reader;
+    private final Iterator<Event> events;
+    private final boolean sequence;
+    private Event next;
+
+    private YamlSequenceReader(Reader reader, Iterator<Event> events, Event value) {
+        this.reader = reader;
+        this.events = events;
+        this.sequence = value.is(Event.ID.SequenceStart);
+        if (sequence && ((SequenceStartEvent) value).getTag() != null)
+            throw new UnstreamableException(value); // e.g. a !!set, which Bukkit would not load as a list
+        this.next = sequence ? events.next() : value;
+    }
+
+    /**
+     * Opens a YAML file and positions a reader at the value under the specified path.
+     * @param file the YAML file
+     * @param path the path of the list, with sections separated by {@code .}
+     * @return a reader over the elements of the list, or null if the file or the path does not exist
+     * @throws IOException if the file could not be read
+     * @throws YAMLException if the document is malformed before the path is reached
+     * @throws UnstreamableException if the path cannot be found without resolving aliases or merge keys
+     */
+    static YamlSequenceReader open(Path file, String path) throws IOException {
+        Reader reader;
+        try {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            Iterator<Event> events = new Yaml().parse(reader).iterator();
+            Event value = navigate(events, path.split("\\."));
+            if (value == null) {
+                reader.close();
+                return null;
+            }
+            return new YamlSequenceReader(reader, events, value);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Advances the event stream to the value under the provided keys, skipping everything in between.
+     * @return the first event of the value, or null if there is no such value
+     */
+    private static Event navigate(Iterator<Event> events, String[] keys) {
+        Event event;
+        do { // skip the start of the stream and the document
+            if (!events.hasNext())
+                return null;
+            event = events.next();
+        } while (event.is(Event.ID.StreamStart) || event.is(Event.ID.DocumentStart));
+        for (String key : keys) {
+            if (!event.is(Event.ID.MappingStart))
+                return null;
+            while (true) {
+                Event keyEvent = events.next();
+                if (keyEvent.is(Event.ID.MappingEnd))
+                    return null;
+                if (keyEvent.is(Event.ID.Alias) || isMergeKey(keyEvent))
+                    throw new UnstreamableException(keyEvent);
+                boolean matches = keyEvent.is(Event.ID.Scalar) && key.equals(((ScalarEvent) keyEvent).getValue());
+                skip(events, keyEvent);
+                Event value = events.next();
+                if (matches) {
+                    if (value.is(Event.ID.Alias))
+                        throw new UnstreamableException(value);
+                    event = value;
+                    break;
+                }
+                skip(events, value);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Skips the remainder of the value that starts with the provided event.
+     */
+    private static void skip(Iterator<Event> events, Event first) {
+        if (!first.is(Event.ID.SequenceStart) && !first.is(Event.ID.MappingStart))
+            return;
+        int depth = 1;
+        while (depth > 0) {
+            Event event = events.next();
+            if (event.is(Event.ID.SequenceStart) || event.is(Event.ID.MappingStart))
+                depth++;
+            else if (event.is(Event.ID.SequenceEnd) || event.is(Event.ID.MappingEnd))
+                depth--;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null && !next.is(Event.ID.SequenceEnd);
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Event event = next;
+        if (!event.is(Event.ID.Scalar))
+            throw new UnstreamableException(event); // an alias or a nested collection
+        Object element = resolve((ScalarEvent) event);
+        next = sequence ? events.next() : null;
+        return element;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean isMergeKey(Event event) {
+        return event.is(Event.ID.Scalar) && Tag.MERGE.equals(resolveTag((ScalarEvent) event));
+    }
+
+    private static Tag resolveTag(ScalarEvent scalar) {
+        if (scalar.getTag() != null && !"!".equals(scalar.getTag()))
+            return null; // explicitly tagged scalars are not resolved
+        return RESOLVER.resolve(NodeId.scalar, scalar.getValue(), scalar.getImplicit().canOmitTagInPlainScalar());
+    }
+
+    /**
+     * Constructs the value of a scalar the way Bukkit would when loading the whole document.
+     * @throws UnstreamableException if the scalar is tagged, null, or in a notation that is not resolved here
+     */
+    private static Object resolve(ScalarEvent scalar) {
+        String value = scalar.getValue();
+        Tag tag = resolveTag(scalar);
+        try {
+            if (Tag.INT.equals(tag))
+                return resolveInt(value.replace("_", ""));
+            if (Tag.FLOAT.equals(tag))
+                return resolveFloat(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new UnstreamableException(scalar); // sexagesimal or other exotic notations
+        }
+        if (Tag.BOOL.equals(tag))
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("on");
+        if (Tag.STR.equals(tag))
+            return value;
+        throw new UnstreamableException(scalar); // explicitly tagged, null, or e.g. a timestamp
+    }
+
+    private static Object resolveInt(String value) {
+        int radix = 10;
+        String digits = value;
+        boolean negative = digits.startsWith("-");
+        if (negative || digits.startsWith("+"))
+            digits = digits.substring(1);
+        if (digits.startsWith("0x")) {
+            radix = 16;
+            digits = digits.substring(2);
+        } else if (digits.startsWith("0b")) {
+            radix = 2;
+            digits = digits.substring(2);
+        } else if (digits.startsWith("0") && digits.length() > 1) {
+            radix = 8;
+            digits = digits.substring(1);
+        }
+        BigInteger number = new BigInteger(negative ? "-" + digits : digits, radix);
+        if (number.bitLength() < Integer.SIZE)
+            return number.intValue();
+        if (number.bitLength() < Long.SIZE)
+            return number.longValue();
+        return number;
+    }
+
+    private static Double resolveFloat(String value) {
+        String lower = value.toLowerCase();
+        if (lower.endsWith(".inf"))
+            return lower.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        if (lower.equals(".nan"))
+            return Double.NaN;
+        return Double.valueOf(value);
+    }
+
+}
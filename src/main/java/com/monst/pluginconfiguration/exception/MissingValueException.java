@@ -2,7 +2,12 @@ package com.monst.pluginconfiguration.exception;
 
 /**
  * An exception that is thrown when a configuration value is missing from the config.yml file.
+ * Since this exception is used for control flow, it does not record a stack trace.
  */
 public class MissingValueException extends Exception {
 
+    public MissingValueException() {
+        super(null, null, false, false);
+    }
+
 }
@@ -2,7 +2,12 @@ package com.monst.pluginconfiguration.exception;
 
 /**
  * An exception that is thrown when a configuration value in the config.yml file is unreadable.
+ * Since this exception is used for control flow, it does not record a stack trace.
  */
 public class UnreadableValueException extends Exception {
 
+    public UnreadableValueException() {
+        super(null, null, false, false);
+    }
+
 }
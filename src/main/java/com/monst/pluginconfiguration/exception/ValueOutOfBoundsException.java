@@ -4,12 +4,14 @@ package com.monst.pluginconfiguration.exception;
  * An exception that is thrown when a configuration value does not conform to its bounds, or is otherwise
  * invalid in a way that can be repaired.
  * This exception must be instantiated with a replacement value.
+ * Since this exception is used for control flow, it does not record a stack trace.
  */
 public class ValueOutOfBoundsException extends Exception {
 
     private final Object replacement;
 
     public <T> ValueOutOfBoundsException(T replacement) {
+        super(null, null, false, false);
         this.replacement = replacement;
     }
 
@@ -6,15 +6,27 @@ import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import org.bukkit.plugin.Plugin;
 
+import java.util.function.DoubleSupplier;
+
 /**
  * A configuration value of the type {@link Double}.
+ * The value can also be read as a primitive through the {@link DoubleSupplier} interface.
  */
-public class DoubleConfigurationValue extends ConfigurationValue<Double> {
+public class DoubleConfigurationValue extends ConfigurationValue<Double> implements DoubleSupplier {
 
     public DoubleConfigurationValue(Plugin plugin, String path, Double defaultValue) {
         super(plugin, path, defaultValue);
     }
 
+    /**
+     * Gets the current value of this configuration value as a primitive {@code double}.
+     * @return the current value
+     */
+    @Override
+    public double getAsDouble() {
+        return Double.longBitsToDouble(getPrimitive());
+    }
+
     @Override
     protected Double parse(String input) throws ArgumentParseException {
         try {
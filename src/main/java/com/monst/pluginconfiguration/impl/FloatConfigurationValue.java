@@ -6,15 +6,35 @@ import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import org.bukkit.plugin.Plugin;
 
+import java.util.function.DoubleSupplier;
+
 /**
  * A configuration value of the type {@link Float}.
+ * The value can also be read as a primitive through the {@link DoubleSupplier} interface.
  */
-public class FloatConfigurationValue extends ConfigurationValue<Float> {
+public class FloatConfigurationValue extends ConfigurationValue<Float> implements DoubleSupplier {
 
     public FloatConfigurationValue(Plugin plugin, String path, Float defaultValue) {
         super(plugin, path, defaultValue);
     }
 
+    /**
+     * Gets the current value of this configuration value as a primitive {@code double}.
+     * @return the current value
+     */
+    @Override
+    public double getAsDouble() {
+        return Double.longBitsToDouble(getPrimitive());
+    }
+
+    /**
+     * Gets the current value of this configuration value as a primitive {@code float}.
+     * @return the current value
+     */
+    public float getAsFloat() {
+        return (float) Double.longBitsToDouble(getPrimitive());
+    }
+
     @Override
     protected Float parse(String input) throws ArgumentParseException {
         try {
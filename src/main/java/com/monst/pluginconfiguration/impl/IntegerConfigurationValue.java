@@ -6,15 +6,27 @@ import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import org.bukkit.plugin.Plugin;
 
+import java.util.function.IntSupplier;
+
 /**
  * A configuration value of the type {@link Integer}.
+ * The value can also be read as a primitive through the {@link IntSupplier} interface.
  */
-public class IntegerConfigurationValue extends ConfigurationValue<Integer> {
+public class IntegerConfigurationValue extends ConfigurationValue<Integer> implements IntSupplier {
 
     public IntegerConfigurationValue(Plugin plugin, String path, Integer defaultValue) {
         super(plugin, path, defaultValue);
     }
 
+    /**
+     * Gets the current value of this configuration value as a primitive {@code int}.
+     * @return the current value
+     */
+    @Override
+    public int getAsInt() {
+        return (int) getPrimitive();
+    }
+
     @Override
     protected Integer parse(String input) throws ArgumentParseException {
         try {
@@ -6,15 +6,27 @@ import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import org.bukkit.plugin.Plugin;
 
+import java.util.function.LongSupplier;
+
 /**
  * A configuration value of the type {@link Long}.
+ * The value can also be read as a primitive through the {@link LongSupplier} interface.
  */
-public class LongConfigurationValue extends ConfigurationValue<Long> {
+public class LongConfigurationValue extends ConfigurationValue<Long> implements LongSupplier {
 
     public LongConfigurationValue(Plugin plugin, String path, Long defaultValue) {
         super(plugin, path, defaultValue);
     }
 
+    /**
+     * Gets the current value of this configuration value as a primitive {@code long}.
+     * @return the current value
+     */
+    @Override
+    public long getAsLong() {
+        return getPrimitive();
+    }
+
     @Override
     protected Long parse(String input) throws ArgumentParseException {
         try {
@@ -1,11 +1,13 @@
 package com.monst.pluginconfiguration.impl;
 
+import com.monst.pluginconfiguration.CompletionIndex;
 import com.monst.pluginconfiguration.ConfigurationValue;
 import com.monst.pluginconfiguration.exception.ArgumentParseException;
 import org.bukkit.Material;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
-import java.util.Optional;
+import java.util.List;
 
 /**
  * A configuration value of the type {@link Material}.
@@ -16,9 +18,20 @@ public class MaterialConfigurationValue extends ConfigurationValue<Material> {
         super(plugin, path, defaultValue);
     }
 
+    /**
+     * Parses a {@link Material} from its name, with the same leniency as {@link Material#matchMaterial(String)}.
+     * Materials are looked up in a prebuilt index shared by all material values, which is considerably faster than
+     * {@link Material#matchMaterial(String)} when many materials are parsed.
+     * @param input the name of the material
+     * @return the material
+     * @throws ArgumentParseException if there is no material with that name
+     */
     @Override
     protected Material parse(String input) throws ArgumentParseException {
-        return Optional.ofNullable(Material.matchMaterial(input)).orElseThrow(() -> createArgumentParseException(input));
+        Material material = MaterialIndex.match(input);
+        if (material == null)
+            throw createArgumentParseException(input);
+        return material;
     }
 
     /**
@@ -31,6 +44,23 @@ public class MaterialConfigurationValue extends ConfigurationValue<Material> {
         return new ArgumentParseException();
     }
 
+    /**
+     * Gets a list of tab-completions to be shown to a player typing in a command.
+     * While no material is being typed, this returns the formatted current and default values.
+     * Otherwise, this returns the names of the materials starting with the typed prefix, from an index shared by all
+     * material values.
+     * @param player the player typing in the command
+     * @param args the arguments the player has typed so far
+     * @return a list of tab-completions
+     */
+    @Override
+    public List<String> getTabCompletions(Player player, String[] args) {
+        String typed = args.length == 0 ? "" : args[args.length - 1];
+        if (typed.isEmpty())
+            return super.getTabCompletions(player, args);
+        return CompletionIndex.materials().complete(typed);
+    }
+
     @Override
     protected Object convertToFileData(Material material) {
         return material.toString();
@@ -0,0 +1,112 @@
+package com.monst.pluginconfiguration.impl;
+
+import org.bukkit.Material;
+
+/**
+ * A prebuilt, open-addressed hash table of all {@link Material}s by name, shared by all material values.
+ * <p>{@link #match(String)} finds the same material as {@link Material#matchMaterial(String)}, but normalizes the
+ * input on the fly while hashing and comparing it, rather than building a normalized copy of it with regular
+ * expressions on every call. Input containing non-ASCII characters, which could change under upper-casing,
+ * is delegated to {@link Material#matchMaterial(String)}.
+ */
+final class MaterialIndex {
+
+    private static final String NAMESPACE_PREFIX = "minecraft:";
+
+    private static final String[] NAMES;
+    private static final Material[] MATERIALS;
+    private static final int MASK;
+
+    static {
+        Material[] materials = Material.values();
+        int capacity = Integer.highestOneBit(Math.max(materials.length, 1) * 2) * 2; // load factor at most 1/2
+        NAMES = new String[capacity];
+        MATERIALS = new Material[capacity];
+        MASK = capacity - 1;
+        for (Material material : materials) {
+            int slot = material.name().hashCode() & MASK;
+            while (NAMES[slot] != null)
+                slot = (slot + 1) & MASK;
+            NAMES[slot] = material.name();
+            MATERIALS[slot] = material;
+        }
+    }
+
+    private MaterialIndex() {}
+
+    /**
+     * Finds a material by name, ignoring case and a leading {@code minecraft:} namespace,
+     * replacing whitespace with underscores and ignoring any other non-word characters.
+     * @param input the name of the material
+     * @return the material, or null if there is no material with that name
+     */
+    static Material match(String input) {
+        int from = input.startsWith(NAMESPACE_PREFIX) ? NAMESPACE_PREFIX.length() : 0;
+        int hash = 0;
+        boolean whitespace = false;
+        for (int i = from; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c >= 128)
+                return Material.matchMaterial(input);
+            if (isWhitespace(c)) {
+                if (!whitespace)
+                    hash = 31 * hash + '_';
+                whitespace = true;
+                continue;
+            }
+            whitespace = false;
+            char normalized = normalize(c);
+            if (normalized != 0)
+                hash = 31 * hash + normalized;
+        }
+        for (int slot = hash & MASK; NAMES[slot] != null; slot = (slot + 1) & MASK)
+            if (matches(NAMES[slot], input, from))
+                return MATERIALS[slot];
+        return null;
+    }
+
+    /**
+     * Compares a material name with the normalized form of the input, without building the normalized form.
+     */
+    private static boolean matches(String name, String input, int from) {
+        int n = 0;
+        boolean whitespace = false;
+        for (int i = from; i < input.length(); i++) {
+            char c = input.charAt(i);
+            char normalized;
+            if (isWhitespace(c)) {
+                if (whitespace)
+                    continue;
+                whitespace = true;
+                normalized = '_';
+            } else {
+                whitespace = false;
+                normalized = normalize(c);
+                if (normalized == 0)
+                    continue;
+            }
+            if (n == name.length() || name.charAt(n++) != normalized)
+                return false;
+        }
+        return n == name.length();
+    }
+
+    /**
+     * @return the upper-case form of an ASCII word character, or 0 for any other character
+     */
+    private static char normalize(char c) {
+        if (c >= 'a' && c <= 'z')
+            return (char) (c - ('a' - 'A'));
+        if (c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')
+            return c;
+        return 0;
+    }
+
+    /**
+     * @return true if the character is matched by {@code \s}
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+}
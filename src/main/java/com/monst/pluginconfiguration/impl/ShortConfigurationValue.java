@@ -6,15 +6,35 @@ import com.monst.pluginconfiguration.exception.UnreadableValueException;
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import org.bukkit.plugin.Plugin;
 
+import java.util.function.IntSupplier;
+
 /**
  * A configuration value of the type {@link Short}.
+ * The value can also be read as a primitive through the {@link IntSupplier} interface.
  */
-public class ShortConfigurationValue extends ConfigurationValue<Short> {
+public class ShortConfigurationValue extends ConfigurationValue<Short> implements IntSupplier {
 
     public ShortConfigurationValue(Plugin plugin, String path, Short defaultValue) {
         super(plugin, path, defaultValue);
     }
 
+    /**
+     * Gets the current value of this configuration value as a primitive {@code int}.
+     * @return the current value
+     */
+    @Override
+    public int getAsInt() {
+        return (int) getPrimitive();
+    }
+
+    /**
+     * Gets the current value of this configuration value as a primitive {@code short}.
+     * @return the current value
+     */
+    public short getAsShort() {
+        return (short) getPrimitive();
+    }
+
     @Override
     protected Short parse(String input) throws ArgumentParseException {
         try {
@@ -2,19 +2,70 @@ package com.monst.pluginconfiguration.impl;
 
 import com.monst.pluginconfiguration.ConfigurationValue;
 import com.monst.pluginconfiguration.exception.ArgumentParseException;
+import com.monst.pluginconfiguration.exception.UnreadableValueException;
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * A configuration value of the type {@link World}.
+ * <p>The world in the configuration file does not need to be loaded, which allows configuring worlds that are loaded
+ * later, such as arenas. The world is retained as a {@link WorldHandle} to the configured name, available from
+ * {@link #getHandle()}, which {@link #get()} resolves to the loaded world. While no world with that name is loaded,
+ * {@link #get()} returns null. This value therefore never keeps a world in memory, not even an unloaded one.
  */
 public class WorldConfigurationValue extends ConfigurationValue<World> {
 
+    private final Plugin plugin;
+
     public WorldConfigurationValue(Plugin plugin, String path, World defaultValue) {
         super(plugin, path, defaultValue);
+        this.plugin = plugin;
+    }
+
+    /**
+     * Gets a handle to the configured world, which refers to the world by name and resolves it lazily.
+     * Unlike the world itself, the handle may be held indefinitely without keeping the world in memory.
+     * @return a handle to the configured world, or null if no world is configured
+     */
+    public WorldHandle getHandle() {
+        return (WorldHandle) getRetained();
+    }
+
+    /**
+     * Retains the configured world as a handle to its name, which is known even if the world is not loaded.
+     */
+    @Override
+    protected Object retain(World world, Object data) {
+        if (world != null)
+            return WorldHandle.of(world);
+        return data == null ? null : WorldHandle.of(data.toString());
+    }
+
+    /**
+     * Resolves the handle to the configured world. Once the plugin is enabled, world events are tracked, so that
+     * the resolved world can be cached by the handle until a world is loaded or unloaded.
+     */
+    @Override
+    protected World resolve(Object retained) {
+        if (retained == null)
+            return null;
+        trackWorlds();
+        return ((WorldHandle) retained).getWorld();
+    }
+
+    /**
+     * Starts tracking world events on behalf of the plugin of this value, unless they are tracked already.
+     * Nothing happens before the plugin is enabled.
+     */
+    private void trackWorlds() {
+        if (!WorldTracker.isListening())
+            WorldTracker.listen(plugin);
     }
 
     @Override
@@ -32,9 +83,46 @@ public class WorldConfigurationValue extends ConfigurationValue<World> {
         return new ArgumentParseException();
     }
 
+    /**
+     * Reads a world from the configuration file. Unlike worlds parsed from user input, the world does not need to be
+     * loaded; if it is not, this returns null, and the world is resolved by name when needed.
+     */
+    @Override
+    protected World convert(Object o) throws ValueOutOfBoundsException, UnreadableValueException {
+        return Bukkit.getWorld(o.toString());
+    }
+
     @Override
     protected Object convertToFileData(World world) {
-        return world.getName();
+        return world == null ? null : world.getName();
+    }
+
+    /**
+     * Formats the current world of this value. The result is not cached, since the configured world may be loaded or
+     * unloaded at any time.
+     * @return the formatted current world
+     */
+    @Override
+    public String toString() {
+        return format(get());
+    }
+
+    /**
+     * Gets a list of tab-completions to be shown to a player typing in a command.
+     * While no world is being typed, this returns the formatted current and default values.
+     * Otherwise, this returns the names of the loaded worlds starting with the typed prefix, from an index that is
+     * rebuilt only when a world is loaded or unloaded.
+     * @param player the player typing in the command
+     * @param args the arguments the player has typed so far
+     * @return a list of tab-completions
+     */
+    @Override
+    public List<String> getTabCompletions(Player player, String[] args) {
+        String typed = args.length == 0 ? "" : args[args.length - 1];
+        if (typed.isEmpty())
+            return super.getTabCompletions(player, args);
+        trackWorlds();
+        return WorldTracker.worldNames().complete(typed);
     }
 
 }
@@ -0,0 +1,106 @@
+package com.monst.pluginconfiguration.impl;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * A reference to a {@link World} by name, which is resolved lazily and never keeps the world loaded in memory.
+ * <p>The resolved world is cached weakly, and the cache is invalidated whenever a world is loaded or unloaded,
+ * so that a handle never returns a world that has since been unloaded. While a world with the name of this handle
+ * is not loaded, {@link #getWorld()} returns null.
+ */
+public final class WorldHandle {
+
+    private final String name;
+    private volatile Resolved resolved;
+
+    private static final class Resolved {
+        private final WeakReference<World> world;
+        private final int generation;
+
+        private Resolved(World world, int generation) {
+            this.world = new WeakReference<>(world);
+            this.generation = generation;
+        }
+    }
+
+    private WorldHandle(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a handle to a world by name.
+     * @param name the name of the world
+     * @return a handle to the world
+     */
+    public static WorldHandle of(String name) {
+        return new WorldHandle(name);
+    }
+
+    /**
+     * Creates a handle to a loaded world.
+     * @param world the world, or null
+     * @return a handle to the world, or null if the world is null
+     */
+    public static WorldHandle of(World world) {
+        if (world == null)
+            return null;
+        WorldHandle handle = new WorldHandle(world.getName());
+        if (WorldTracker.isListening())
+            handle.resolved = new Resolved(world, WorldTracker.generation());
+        return handle;
+    }
+
+    /**
+     * @return the name of the world
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Resolves this handle to the loaded world with its name.
+     * @return the world, or null if no world with this name is currently loaded
+     */
+    public World getWorld() {
+        Resolved resolved = this.resolved;
+        if (resolved != null && resolved.generation == WorldTracker.generation() && WorldTracker.isListening()) {
+            World world = resolved.world.get();
+            if (world != null)
+                return world;
+        }
+        int generation = WorldTracker.generation(); // read before resolving, so that a concurrent change is noticed
+        World world = Bukkit.getWorld(name);
+        this.resolved = world == null || !WorldTracker.isListening() ? null : new Resolved(world, generation);
+        return world;
+    }
+
+    /**
+     * @return true if a world with the name of this handle is currently loaded
+     */
+    public boolean isLoaded() {
+        return getWorld() != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        return name.equals(((WorldHandle) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.monst.pluginconfiguration.impl;
+
+import com.monst.pluginconfiguration.CompletionIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks world load and unload events, so that resolved {@link WorldHandle}s and the index of world names can be
+ * invalidated as soon as the set of loaded worlds changes.
+ * <p>A single listener is registered on behalf of the first enabled plugin that resolves a world value. As long as no
+ * listener is active, nothing is cached.
+ */
+final class WorldTracker implements Listener {
+
+    private static volatile int generation;
+    private static volatile Plugin listeningPlugin;
+    private static volatile CompletionIndex worldNames;
+
+    private WorldTracker() {}
+
+    /**
+     * Makes sure that world events are being tracked, registering a listener on behalf of the provided plugin if
+     * necessary. Nothing happens if the plugin is not enabled yet.
+     * @param plugin the plugin resolving a world value
+     */
+    static synchronized void listen(Plugin plugin) {
+        if (isListening() || !plugin.isEnabled())
+            return;
+        Bukkit.getPluginManager().registerEvents(new WorldTracker(), plugin);
+        invalidate();
+        listeningPlugin = plugin;
+    }
+
+    /**
+     * @return true if world events are currently being tracked, i.e. if cached worlds can be trusted
+     */
+    static boolean isListening() {
+        Plugin plugin = listeningPlugin;
+        return plugin != null && plugin.isEnabled(); // listeners are unregistered when their plugin is disabled
+    }
+
+    /**
+     * @return the current generation of the set of loaded worlds, which changes whenever a world is loaded or unloaded
+     */
+    static int generation() {
+        return generation;
+    }
+
+    /**
+     * @return an index over the names of all loaded worlds
+     */
+    static CompletionIndex worldNames() {
+        CompletionIndex index = worldNames;
+        if (index == null || !isListening()) {
+            List<String> names = new ArrayList<>();
+            for (World world : Bukkit.getWorlds())
+                names.add(world.getName());
+            worldNames = index = CompletionIndex.of(names);
+        }
+        return index;
+    }
+
+    private static synchronized void invalidate() {
+        generation++;
+        worldNames = null;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        invalidate();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        invalidate();
+        // The world is only removed after the event; invalidate again in case it was resolved in the meantime
+        Plugin plugin = listeningPlugin;
+        if (plugin != null && plugin.isEnabled())
+            Bukkit.getScheduler().runTask(plugin, WorldTracker::invalidate);
+    }
+
+}
@@ -2,12 +2,18 @@ package com.monst.pluginconfiguration.validation;
 
 import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * A {@link Bound} is a {@link Predicate} that checks whether a value is within a certain range.
  * If it is not, it replaces the value with a different one by throwing a {@link ValueOutOfBoundsException}.
+ * <p>Bounds are enforced by this library through {@link #enforce(Object, RepairFlag)}, which returns the replacement
+ * instead of throwing, and records explicitly whether the value was repaired. The bounds created by the factory methods
+ * of this interface implement it without any exceptions, while other bounds are adapted from {@link #check(Object)}.
  * @param <T> the type of the value to check
  */
 @FunctionalInterface
@@ -21,10 +27,48 @@ public interface Bound<T> {
     void check(T t) throws ValueOutOfBoundsException;
 
     /**
+     * Enforces this {@link Bound} on a value, returning the value itself if it complies, or a replacement if not.
+     * A bound passes a value by returning the very same instance; any other return value is treated as a replacement.
+     * By default, this method adapts {@link #check(Object)}.
+     * @param t the value to check
+     * @return the provided value, or a replacement
+     */
+    default T enforce(T t) {
+        try {
+            check(t);
+            return t;
+        } catch (ValueOutOfBoundsException e) {
+            return e.getReplacement();
+        }
+    }
+
+    /**
+     * Enforces this {@link Bound} on a value like {@link #enforce(Object)}, and raises the provided flag if the value
+     * had to be repaired. Unlike the identity of the returned value, the flag also records repairs that return the very
+     * same instance, such as a {@link #check(Object)} that fixes a mutable value in place before throwing.
+     * By default, this method adapts {@link #check(Object)}, raising the flag whenever it throws.
+     * @param t the value to check
+     * @param repaired the flag to raise if the value is repaired
+     * @return the provided value, or a replacement
+     */
+    default T enforce(T t, RepairFlag repaired) {
+        try {
+            check(t);
+            return t;
+        } catch (ValueOutOfBoundsException e) {
+            repaired.raise();
+            return e.getReplacement();
+        }
+    }
+
+    /**
+     * Returns the {@link Bound} that always passes. The same instance is returned every time, so that
+     * values without any bounds can be recognized and skip validation entirely.
      * @return a {@link Bound} that always passes
      */
+    @SuppressWarnings("unchecked")
     static <T> Bound<T> alwaysPasses() {
-        return t -> {};
+        return (Bound<T>) EnforcingBound.ALWAYS_PASSES;
     }
 
     /**
@@ -36,6 +80,27 @@ public interface Bound<T> {
         };
     }
 
+    /**
+     * Combines a list of bounds into a single bound which enforces them in order,
+     * each bound checking the replacement of the previous one.
+     * Bounds that {@link #alwaysPasses() always pass} are left out; if no other bounds remain, the bound that always
+     * passes is returned, and if a single bound remains, that bound is returned as is.
+     * @param bounds the bounds to combine
+     * @param <T> the type of bound
+     * @return a bound enforcing all provided bounds
+     */
+    static <T> Bound<T> allOf(List<? extends Bound<T>> bounds) {
+        List<Bound<T>> chain = new ArrayList<>(bounds.size());
+        for (Bound<T> bound : bounds)
+            if (bound != alwaysPasses())
+                chain.add(bound);
+        if (chain.isEmpty())
+            return alwaysPasses();
+        if (chain.size() == 1)
+            return chain.get(0);
+        return new BoundChain<>(chain);
+    }
+
     /**
      * Returns a bound which requires the {@link Comparable} value to be at least {@code min}.
      * If not, the value is replaced with {@code min}.
@@ -68,10 +133,7 @@ public interface Bound<T> {
      * @return a bound requiring the specified predicate and mapping noncompliant values using the specified function
      */
     static <T> Bound<T> requiring(Predicate<? super T> shouldBe, Function<T, T> replacementMapper) {
-        return t -> {
-            if (!shouldBe.test(t))
-                throw new ValueOutOfBoundsException(replacementMapper.apply(t));
-        };
+        return new RequiringBound<>(shouldBe, replacementMapper);
     }
 
     /**
@@ -84,10 +146,18 @@ public interface Bound<T> {
      * @return a bound forbidding the specified predicate and mapping noncompliant values using the specified function
      */
     static <T> Bound<T> disallowing(Predicate<? super T> shouldNotBe, Function<T, T> replacementMapper) {
-        return t -> {
-            if (shouldNotBe.test(t))
-                throw new ValueOutOfBoundsException(replacementMapper.apply(t));
-        };
+        return new RequiringBound<>(shouldNotBe.negate(), replacementMapper);
+    }
+
+    /**
+     * Returns a bound which is defined by a function that returns its input if it complies with the bound,
+     * or a replacement value if it does not. Such a bound can be enforced without throwing any exceptions.
+     * @param enforcer the function returning the very same instance for compliant values, and a replacement otherwise
+     * @param <T> the type of bound
+     * @return a bound enforced by the specified function
+     */
+    static <T> Bound<T> enforcing(UnaryOperator<T> enforcer) {
+        return new EnforcingBound<>(enforcer);
     }
 
 }
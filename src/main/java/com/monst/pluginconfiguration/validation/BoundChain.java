@@ -0,0 +1,42 @@
+package com.monst.pluginconfiguration.validation;
+
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+
+import java.util.List;
+
+/**
+ * A {@link Bound} which enforces multiple bounds in order, each bound checking the replacement of the previous one.
+ * @param <T> the type of the value to check
+ */
+final class BoundChain<T> implements Bound<T> {
+
+    private final Object[] bounds;
+
+    BoundChain(List<Bound<T>> bounds) {
+        this.bounds = bounds.toArray();
+    }
+
+    @Override
+    public void check(T t) throws ValueOutOfBoundsException {
+        T result = enforce(t);
+        if (result != t)
+            throw new ValueOutOfBoundsException(result);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T enforce(T t) {
+        for (Object bound : bounds)
+            t = ((Bound<T>) bound).enforce(t);
+        return t;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T enforce(T t, RepairFlag repaired) {
+        for (Object bound : bounds)
+            t = ((Bound<T>) bound).enforce(t, repaired);
+        return t;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.monst.pluginconfiguration.validation;
+
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A {@link Bound} of primitive {@code double} values.
+ * Rather than throwing, a DoubleBound maps a value to itself if it falls within the bound, or to a replacement if it does not,
+ * so that values can be validated without boxing.
+ * When used as a regular {@link Bound}, a {@link ValueOutOfBoundsException} is thrown whenever the value was replaced,
+ * and the boxed value is only allocated by {@link #enforce} when it is replaced.
+ */
+@FunctionalInterface
+public interface DoubleBound extends Bound<Double> {
+
+    /**
+     * Returns the provided value if it falls within this bound, or a replacement value if it does not.
+     * @param value the value to check
+     * @return the value itself, or a replacement
+     */
+    double applyAsDouble(double value);
+
+    @Override
+    default void check(Double value) throws ValueOutOfBoundsException {
+        double result = applyAsDouble(value);
+        if (Double.compare(result, value) != 0)
+            throw new ValueOutOfBoundsException(result);
+    }
+
+    @Override
+    default Double enforce(Double value) {
+        double result = applyAsDouble(value);
+        if (Double.compare(result, value) != 0)
+            return result;
+        return value; // the same instance, so that the value is recognized as passing
+    }
+
+    @Override
+    default Double enforce(Double value, RepairFlag repaired) {
+        double result = applyAsDouble(value);
+        if (Double.compare(result, value) != 0) {
+            repaired.raise();
+            return result;
+        }
+        return value;
+    }
+
+    /**
+     * Returns a bound which requires the value to be at least {@code min}.
+     * If not, the value is replaced with {@code min}.
+     * @param min the lower bound
+     * @return an inclusive lower bound of {@code min}
+     */
+    static DoubleBound atLeast(double min) {
+        return value -> Double.compare(value, min) >= 0 ? value : min;
+    }
+
+    /**
+     * Returns a bound which requires the value to be at most {@code max}.
+     * If not, the value is replaced with {@code max}.
+     * @param max the upper bound
+     * @return an inclusive upper bound of {@code max}
+     */
+    static DoubleBound atMost(double max) {
+        return value -> Double.compare(value, max) <= 0 ? value : max;
+    }
+
+    /**
+     * Returns a bound which requires the value to be positive or zero, replacing negative values with their
+     * absolute value.
+     * @return a bound requiring non-negative values
+     */
+    static DoubleBound absolute() {
+        return requiring(d -> d >= 0, Math::abs);
+    }
+
+    /**
+     * Returns a bound which requires the value to be positive or zero, replacing negative values with zero.
+     * @return a bound requiring non-negative values
+     */
+    static DoubleBound positiveOrZero() {
+        return atLeast(0d);
+    }
+
+    /**
+     * Returns a bound which requires the value to be negative or zero, replacing positive values with zero.
+     * @return a bound requiring non-positive values
+     */
+    static DoubleBound negativeOrZero() {
+        return atMost(0d);
+    }
+
+    /**
+     * Returns a bound which requires the value to fulfill the provided predicate,
+     * mapping it to a replacement value if it does not.
+     * @param shouldBe the predicate which values are required to pass
+     * @param replacementMapper the function which maps an out-of-bounds value to a replacement
+     * @return a bound requiring the specified predicate and mapping noncompliant values using the specified function
+     */
+    static DoubleBound requiring(DoublePredicate shouldBe, DoubleUnaryOperator replacementMapper) {
+        return value -> shouldBe.test(value) ? value : replacementMapper.applyAsDouble(value);
+    }
+
+}
@@ -3,15 +3,15 @@ package com.monst.pluginconfiguration.validation;
 public interface DoubleValidation {
 
     static Bound<Double> absolute() {
-        return Bound.requiring(d -> d >= 0, Math::abs);
+        return DoubleBound.absolute();
     }
 
     static Bound<Double> positiveOrZero() {
-        return Bound.atLeast(0d);
+        return DoubleBound.positiveOrZero();
     }
 
     static Bound<Double> negativeOrZero() {
-        return Bound.atMost(0d);
+        return DoubleBound.negativeOrZero();
     }
 
 }
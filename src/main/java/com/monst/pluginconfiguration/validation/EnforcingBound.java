@@ -0,0 +1,41 @@
+package com.monst.pluginconfiguration.validation;
+
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link Bound} which is enforced by a function rather than by throwing exceptions.
+ * @param <T> the type of the value to check
+ */
+final class EnforcingBound<T> implements Bound<T> {
+
+    static final EnforcingBound<Object> ALWAYS_PASSES = new EnforcingBound<>(UnaryOperator.identity());
+
+    private final UnaryOperator<T> enforcer;
+
+    EnforcingBound(UnaryOperator<T> enforcer) {
+        this.enforcer = enforcer;
+    }
+
+    @Override
+    public void check(T t) throws ValueOutOfBoundsException {
+        T result = enforcer.apply(t);
+        if (result != t)
+            throw new ValueOutOfBoundsException(result);
+    }
+
+    @Override
+    public T enforce(T t) {
+        return enforcer.apply(t);
+    }
+
+    @Override
+    public T enforce(T t, RepairFlag repaired) {
+        T result = enforcer.apply(t);
+        if (result != t) // the enforcer signals a repair by returning a different instance
+            repaired.raise();
+        return result;
+    }
+
+}
@@ -3,15 +3,15 @@ package com.monst.pluginconfiguration.validation;
 public interface FloatValidation {
 
     static Bound<Float> absolute() {
-        return Bound.requiring(f -> f >= 0, Math::abs);
+        return FloatBound.absolute();
     }
 
     static Bound<Float> positiveOrZero() {
-        return Bound.atLeast(0f);
+        return FloatBound.positiveOrZero();
     }
 
     static Bound<Float> negativeOrZero() {
-        return Bound.atMost(0f);
+        return FloatBound.negativeOrZero();
     }
 
 }
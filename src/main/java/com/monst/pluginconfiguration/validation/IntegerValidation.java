@@ -3,23 +3,23 @@ package com.monst.pluginconfiguration.validation;
 public interface IntegerValidation {
 
     static Bound<Integer> absolute() {
-        return Bound.requiring(i -> i >= 0, Math::abs);
+        return IntBound.absolute();
     }
 
     static Bound<Integer> positive() {
-        return Bound.atLeast(1);
+        return IntBound.positive();
     }
 
     static Bound<Integer> positiveOrZero() {
-        return Bound.atLeast(0);
+        return IntBound.positiveOrZero();
     }
 
     static Bound<Integer> negativeOrZero() {
-        return Bound.atMost(0);
+        return IntBound.negativeOrZero();
     }
 
     static Bound<Integer> negative() {
-        return Bound.atMost(-1);
+        return IntBound.negative();
     }
 
 }
@@ -3,23 +3,23 @@ package com.monst.pluginconfiguration.validation;
 public interface LongValidation {
 
     static Bound<Long> absolute() {
-        return Bound.requiring(l -> l >= 0, Math::abs);
+        return LongBound.absolute();
     }
 
     static Bound<Long> positive() {
-        return Bound.atLeast(1L);
+        return LongBound.positive();
     }
 
     static Bound<Long> positiveOrZero() {
-        return Bound.atLeast(0L);
+        return LongBound.positiveOrZero();
     }
 
     static Bound<Long> negativeOrZero() {
-        return Bound.atMost(0L);
+        return LongBound.negativeOrZero();
     }
 
     static Bound<Long> negative() {
-        return Bound.atMost(-1L);
+        return LongBound.negative();
     }
 
 }
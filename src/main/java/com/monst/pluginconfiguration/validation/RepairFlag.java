@@ -0,0 +1,26 @@
+package com.monst.pluginconfiguration.validation;
+
+/**
+ * Records whether a {@link Bound} had to repair a value, independently of whether the repaired value is a different
+ * instance. A flag is only ever raised; a single flag can therefore collect the repairs of several bounds.
+ * @see Bound#enforce(Object, RepairFlag)
+ */
+public final class RepairFlag {
+
+    private boolean raised;
+
+    /**
+     * Records that a value was repaired.
+     */
+    public void raise() {
+        raised = true;
+    }
+
+    /**
+     * @return true if a value was repaired since this flag was created
+     */
+    public boolean isRaised() {
+        return raised;
+    }
+
+}
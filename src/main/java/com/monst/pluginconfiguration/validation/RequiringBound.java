@@ -0,0 +1,42 @@
+package com.monst.pluginconfiguration.validation;
+
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Bound} which requires values to fulfill a predicate, and maps those that do not to a replacement.
+ * Since the predicate decides whether a value is repaired, a replacement is recognized even if it is the same instance.
+ * @param <T> the type of the value to check
+ */
+final class RequiringBound<T> implements Bound<T> {
+
+    private final Predicate<? super T> shouldBe;
+    private final Function<T, T> replacementMapper;
+
+    RequiringBound(Predicate<? super T> shouldBe, Function<T, T> replacementMapper) {
+        this.shouldBe = shouldBe;
+        this.replacementMapper = replacementMapper;
+    }
+
+    @Override
+    public void check(T t) throws ValueOutOfBoundsException {
+        if (!shouldBe.test(t))
+            throw new ValueOutOfBoundsException(replacementMapper.apply(t));
+    }
+
+    @Override
+    public T enforce(T t) {
+        return shouldBe.test(t) ? t : replacementMapper.apply(t);
+    }
+
+    @Override
+    public T enforce(T t, RepairFlag repaired) {
+        if (shouldBe.test(t))
+            return t;
+        repaired.raise();
+        return replacementMapper.apply(t);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.monst.pluginconfiguration.validation;
+
+import com.monst.pluginconfiguration.exception.ValueOutOfBoundsException;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A {@link Bound} of primitive {@code short} values.
+ * Rather than throwing, a ShortBound maps a value to itself if it falls within the bound, or to a replacement if it does not,
+ * so that values can be validated without boxing.
+ * When used as a regular {@link Bound}, a {@link ValueOutOfBoundsException} is thrown whenever the value was replaced,
+ * and the boxed value is only allocated by {@link #enforce} when it is replaced.
+ */
+@FunctionalInterface
+public interface ShortBound extends Bound<Short> {
+
+    /**
+     * Returns the provided value if it falls within this bound, or a replacement value if it does not.
+     * @param value the value to check
+     * @return the value itself, or a replacement
+     */
+    short applyAsShort(short value);
+
+    @Override
+    default void check(Short value) throws ValueOutOfBoundsException {
+        short result = applyAsShort(value);
+        if (result != value)
+            throw new ValueOutOfBoundsException(result);
+    }
+
+    @Override
+    default Short enforce(Short value) {
+        short result = applyAsShort(value);
+        if (result != value)
+            return result;
+        return value; // the same instance, so that the value is recognized as passing
+    }
+
+    @Override
+    default Short enforce(Short value, RepairFlag repaired) {
+        short result = applyAsShort(value);
+        if (result != value) {
+            repaired.raise();
+            return result;
+        }
+        return value;
+    }
+
+    /**
+     * Returns a bound which requires the value to be at least {@code min}.
+     * If not, the value is replaced with {@code min}.
+     * @param min the lower bound
+     * @return an inclusive lower bound of {@code min}
+     */
+    static ShortBound atLeast(short min) {
+        return value -> value >= min ? value : min;
+    }
+
+    /**
+     * Returns a bound which requires the value to be at most {@code max}.
+     * If not, the value is replaced with {@code max}.
+     * @param max the upper bound
+     * @return an inclusive upper bound of {@code max}
+     */
+    static ShortBound atMost(short max) {
+        return value -> value <= max ? value : max;
+    }
+
+    /**
+     * Returns a bound which requires the value to be positive or zero, replacing negative values with their
+     * absolute value.
+     * @return a bound requiring non-negative values
+     */
+    static ShortBound absolute() {
+        return requiring(s -> s >= 0, Math::abs);
+    }
+
+    /**
+     * Returns a bound which requires the value to be positive, replacing other values with the smallest positive value.
+     * @return a bound requiring positive values
+     */
+    static ShortBound positive() {
+        return atLeast((short) 1);
+    }
+
+    /**
+     * Returns a bound which requires the value to be positive or zero, replacing negative values with zero.
+     * @return a bound requiring non-negative values
+     */
+    static ShortBound positiveOrZero() {
+        return atLeast((short) 0);
+    }
+
+    /**
+     * Returns a bound which requires the value to be negative or zero, replacing positive values with zero.
+     * @return a bound requiring non-positive values
+     */
+    static ShortBound negativeOrZero() {
+        return atMost((short) 0);
+    }
+
+    /**
+     * Returns a bound which requires the value to be negative, replacing other values with the largest negative value.
+     * @return a bound requiring negative values
+     */
+    static ShortBound negative() {
+        return atMost((short) -1);
+    }
+
+    /**
+     * Returns a bound which requires the value to fulfill the provided predicate,
+     * mapping it to a replacement value if it does not.
+     * @param shouldBe the predicate which values are required to pass
+     * @param replacementMapper the function which maps an out-of-bounds value to a replacement
+     * @return a bound requiring the specified predicate and mapping noncompliant values using the specified function
+     */
+    static ShortBound requiring(IntPredicate shouldBe, IntUnaryOperator replacementMapper) {
+        return value -> shouldBe.test(value) ? value : (short) replacementMapper.applyAsInt(value);
+    }
+
+}
@@ -3,23 +3,23 @@ package com.monst.pluginconfiguration.validation;
 public interface ShortValidation {
 
     static Bound<Short> absolute() {
-        return Bound.requiring(s -> s >= 0, s -> (short) Math.abs(s));
+        return ShortBound.absolute();
     }
 
     static Bound<Short> positive() {
-        return Bound.atLeast((short) 1);
+        return ShortBound.positive();
     }
 
     static Bound<Short> positiveOrZero() {
-        return Bound.atLeast((short) 0);
+        return ShortBound.positiveOrZero();
     }
 
     static Bound<Short> negativeOrZero() {
-        return Bound.atMost((short) 0);
+        return ShortBound.negativeOrZero();
     }
 
     static Bound<Short> negative() {
-        return Bound.atMost((short) -1);
+        return ShortBound.negative();
     }
 
 }
@@ -0,0 +1,168 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.impl.IntegerConfigurationValue;
+import com.monst.pluginconfiguration.impl.StringConfigurationValue;
+import com.monst.pluginconfiguration.validation.Bound;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the library works on a JVM without Flight Recorder, such as most builds of Java 8, by loading it in a
+ * class loader that hides the {@code jdk.jfr} package.
+ */
+class ConfigurationEventsTest {
+
+    private static final String PACKAGE = "com.monst.pluginconfiguration.";
+
+    @Test
+    void neverLoadsEventsWithoutFlightRecorder() throws Exception {
+        HidingClassLoader loader = new HidingClassLoader(getClass().getClassLoader());
+        Class<?> events = Class.forName(ConfigurationEvents.class.getName(), true, loader);
+        Field available = events.getDeclaredField("AVAILABLE");
+        available.setAccessible(true);
+        assertFalse(available.getBoolean(null));
+
+        Callable<?> smokeTest = (Callable<?>) loader.loadClass(SmokeTest.class.getName()).getDeclaredConstructor()
+                .newInstance();
+        assertEquals("limit: 42\nname: test\n", smokeTest.call());
+
+        List<String> eventClasses = loader.defined.stream()
+                .filter(name -> name.startsWith(ConfigurationEvents.class.getName() + "$"))
+                .collect(Collectors.toList());
+        assertEquals(new ArrayList<>(), eventClasses, "no event class is loaded");
+        assertTrue(loader.defined.contains(ConfigurationRegistry.class.getName()));
+    }
+
+    /**
+     * Loads, validates, reloads, sets and saves values, which passes through every kind of event.
+     */
+    public static final class SmokeTest implements Callable<String> {
+        @Override
+        public String call() throws IOException {
+            Path folder = Files.createTempDirectory("plugin");
+            File file = folder.resolve("config.yml").toFile();
+            Files.write(file.toPath(), "limit: 500\nname: test\n".getBytes(StandardCharsets.UTF_8));
+            Plugin plugin = plugin(folder.toFile());
+            ConfigurationRegistry registry = new ConfigurationRegistry(plugin);
+            IntegerConfigurationValue limit = registry.register(new IntegerConfigurationValue(plugin, "limit", 10) {
+                @Override
+                protected Bound<Integer> getBound() {
+                    return Bound.atMost(100);
+                }
+            });
+            StringConfigurationValue name = registry.register(new StringConfigurationValue(plugin, "name", ""));
+            assertEquals(100, limit.get());
+            assertEquals("test", name.get());
+            registry.reload();
+            try {
+                limit.parseAndSet("42");
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+            String saved = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            Files.delete(file.toPath());
+            Files.delete(folder);
+            return saved;
+        }
+
+        private static Plugin plugin(File folder) {
+            File file = new File(folder, "config.yml");
+            YamlConfiguration[] config = { YamlConfiguration.loadConfiguration(file) };
+            return (Plugin) Proxy.newProxyInstance(SmokeTest.class.getClassLoader(), new Class<?>[] { Plugin.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getConfig":
+                                return config[0];
+                            case "reloadConfig":
+                                config[0] = YamlConfiguration.loadConfiguration(file);
+                                return null;
+                            case "saveConfig":
+                                try {
+                                    config[0].save(file);
+                                } catch (IOException e) {
+                                    throw new AssertionError(e);
+                                }
+                                return null;
+                            case "getDataFolder":
+                                return folder;
+                            case "getName":
+                                return "Test";
+                            case "getLogger":
+                                return Logger.getLogger("Test");
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Defines the classes of this library itself, so that they resolve every other class through this loader,
+     * which fails to find any class of the Flight Recorder API.
+     */
+    private static final class HidingClassLoader extends ClassLoader {
+
+        private final List<String> defined = new ArrayList<>();
+
+        private HidingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith("jdk.jfr."))
+                throw new ClassNotFoundException(name);
+            if (!name.startsWith(PACKAGE))
+                return super.loadClass(name, resolve);
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    byte[] bytes = read(name);
+                    c = defineClass(name, bytes, 0, bytes.length);
+                    defined.add(name);
+                }
+                if (resolve)
+                    resolveClass(c);
+                return c;
+            }
+        }
+
+        private byte[] read(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null)
+                    throw new ClassNotFoundException(name);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                for (int read; (read = in.read(buffer)) >= 0; )
+                    bytes.write(buffer, 0, read);
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.monst.pluginconfiguration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how {@link ConfigurationSnapshot}s are derived from each other, in particular that publishing a stage never
+ * loses a value that was replaced while the stage was being loaded.
+ */
+class ConfigurationSnapshotTest {
+
+    private ConfigurationSnapshot base;
+
+    @BeforeEach
+    void setUp() {
+        base = ConfigurationSnapshot.empty(null)
+                .with(0, 1, null)
+                .with(1, 2.5, null)
+                .with(2, "three", null);
+    }
+
+    @Test
+    void appendsAndReplacesValues() {
+        assertEquals(3, base.size());
+        assertEquals(3, base.getVersion());
+        assertEquals(1L, base.getPrimitive(0));
+        assertEquals(Double.doubleToRawLongBits(2.5), base.getPrimitive(1));
+        assertEquals("three", base.<String>get(2));
+
+        ConfigurationSnapshot next = base.with(1, 4.0, null);
+        assertEquals(4, next.getVersion());
+        assertEquals(4.0, next.<Double>get(1));
+        assertEquals(2.5, base.<Double>get(1), "snapshots are immutable");
+        assertTrue(next.isUnchangedSince(0, base));
+        assertFalse(next.isUnchangedSince(1, base));
+    }
+
+    @Test
+    void publishesStagedValues() {
+        Object[] overrides = { "override" };
+        ConfigurationSnapshot published = base.withStaged(base, new Object[] { 10, 20.5, "thirty" },
+                new Object[][] { null, overrides, null }, new Object[] { 10, 20.5, "thirty" });
+        assertEquals(base.getVersion() + 1, published.getVersion());
+        assertEquals(10, published.<Integer>get(0));
+        assertEquals(10L, published.getPrimitive(0));
+        assertEquals(20.5, published.<Double>get(1));
+        assertEquals("thirty", published.<String>get(2));
+        assertSame(overrides, published.getOverrides(1));
+        assertTrue(published.isLoadedFrom(2, "thirty"));
+        assertFalse(published.isLoadedFrom(2, "three"));
+    }
+
+    @Test
+    void keepsValuesSetWhileStaging() {
+        Object[] setOverrides = { "set" };
+        ConfigurationSnapshot current = base.with(1, 7.5, setOverrides);
+        ConfigurationSnapshot published = current.withStaged(base, new Object[] { 10, 20.5, "thirty" },
+                new Object[][] { null, { "staged" }, null }, new Object[] { 10, 20.5, "thirty" });
+        assertEquals(10, published.<Integer>get(0));
+        assertEquals(7.5, published.<Double>get(1), "the value set while staging is kept");
+        assertEquals(Double.doubleToRawLongBits(7.5), published.getPrimitive(1));
+        assertSame(setOverrides, published.getOverrides(1), "the overrides set while staging are kept");
+        assertFalse(published.isLoadedFrom(1, 20.5), "the kept value was not loaded from the staged data");
+        assertEquals("thirty", published.<String>get(2));
+        assertTrue(published.isUnchangedSince(1, current));
+        assertFalse(published.isUnchangedSince(0, current));
+    }
+
+    @Test
+    void keepsValuesRegisteredWhileStaging() {
+        ConfigurationSnapshot current = base.with(3, "registered", null);
+        ConfigurationSnapshot published = current.withStaged(base, new Object[] { 10, 20.5, "thirty" },
+                new Object[3][], new Object[3]);
+        assertEquals(4, published.size());
+        assertEquals("thirty", published.<String>get(2));
+        assertEquals("registered", published.<String>get(3));
+        assertTrue(published.isUnchangedSince(3, current));
+    }
+
+    @Test
+    void loadsOnlyValuesThatAreStillUnloaded() {
+        ConfigurationSnapshot lazy = base
+                .with(3, ConfigurationValue.UNLOADED, null)
+                .with(4, ConfigurationValue.UNLOADED, null);
+        ConfigurationSnapshot set = lazy.with(4, "set", null);
+        ConfigurationSnapshot loaded = set.withLoaded(new int[] { 3, 4 }, new Object[] { "loaded", "loaded" },
+                new Object[][] { { "override" }, null });
+        assertEquals("loaded", loaded.<String>get(3));
+        assertEquals("override", loaded.getOverrides(3)[0]);
+        assertEquals("set", loaded.<String>get(4), "a value set before it was loaded is kept");
+        assertTrue(loaded.isUnchangedSince(4, set));
+    }
+
+}
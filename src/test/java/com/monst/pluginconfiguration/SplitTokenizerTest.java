@@ -0,0 +1,89 @@
+package com.monst.pluginconfiguration;
+
+import com.monst.pluginconfiguration.exception.ArgumentParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the tokenizers of {@link InputTokenizer} produce exactly the elements of {@link String#split(String)}.
+ */
+class SplitTokenizerTest {
+
+    private static final String COMMAS_OR_WHITESPACE = "\\s*(,|\\s)\\s*";
+
+    @Test
+    void splitsOnCommasOrWhitespaceLikeSplit() throws ArgumentParseException {
+        for (String input : new String[] { "", "a", "a,b", "a, b", "a ,b", "a  ,  b", "a b\tc\nd", "a, ,b", "a,,b",
+                ",a", " a", " , a", "a,", "a ", "a, ", ",", " ", ", ,", "\r\n", "a\u000Bb\fc", "a\u00A0b" })
+            assertSplitLikeString(InputTokenizer.commasOrWhitespace(), COMMAS_OR_WHITESPACE, input);
+    }
+
+    @Test
+    void splitsEveryShortInputLikeSplit() throws ArgumentParseException {
+        char[] alphabet = { 'a', 'b', ',', ' ', '\t' };
+        InputTokenizer tokenizer = InputTokenizer.commasOrWhitespace();
+        for (int length = 0; length <= 6; length++) {
+            int combinations = (int) Math.pow(alphabet.length, length);
+            for (int combination = 0; combination < combinations; combination++) {
+                char[] input = new char[length];
+                for (int i = 0, rest = combination; i < length; i++, rest /= alphabet.length)
+                    input[i] = alphabet[rest % alphabet.length];
+                assertSplitLikeString(tokenizer, COMMAS_OR_WHITESPACE, new String(input));
+            }
+        }
+    }
+
+    @Test
+    void keepsLeadingAndInnerEmptyElements() throws ArgumentParseException {
+        assertEquals(Arrays.asList("", "a"), tokenize(InputTokenizer.commasOrWhitespace(), ", a"));
+        assertEquals(Arrays.asList("a", "", "b"), tokenize(InputTokenizer.commasOrWhitespace(), "a, ,b"));
+        assertEquals(Arrays.asList("a", "", "", "b"), tokenize(InputTokenizer.splittingOn(","), "a,,,b"));
+    }
+
+    @Test
+    void dropsTrailingEmptyElements() throws ArgumentParseException {
+        assertEquals(Arrays.asList("a"), tokenize(InputTokenizer.commasOrWhitespace(), "a, ,"));
+        assertEquals(Arrays.asList("a", "", "b"), tokenize(InputTokenizer.splittingOn(","), "a,,b,,,"));
+        assertEquals(Arrays.asList(), tokenize(InputTokenizer.splittingOn(","), ",,,"));
+        assertEquals(Arrays.asList(""), tokenize(InputTokenizer.splittingOn(","), ""));
+    }
+
+    @Test
+    void splitsOnPatternsLikeSplit() throws ArgumentParseException {
+        String[] inputs = { "", "a", "a,b", ",a,,b,", ";a;;b;", "aBcD", "AbC", "a1b22c", "abc" };
+        for (String regex : new String[] { ",", ";+", "\\d", "(?=[A-Z])", "", "x*" }) {
+            InputTokenizer tokenizer = InputTokenizer.splittingOn(regex);
+            for (String input : inputs)
+                assertSplitLikeString(tokenizer, regex, input);
+        }
+    }
+
+    @Test
+    void stopsAtFirstUnparseableElement() {
+        List<String> tokens = new ArrayList<>();
+        assertThrows(ArgumentParseException.class, () -> InputTokenizer.commasOrWhitespace().tokenize("a, b, c", token -> {
+            tokens.add(token);
+            if (token.equals("b"))
+                throw new ArgumentParseException();
+        }));
+        assertEquals(Arrays.asList("a", "b"), tokens);
+    }
+
+    private static void assertSplitLikeString(InputTokenizer tokenizer, String regex, String input)
+            throws ArgumentParseException {
+        assertEquals(Arrays.asList(input.split(regex)), tokenize(tokenizer, input),
+                () -> "split of \"" + input + "\" on " + regex);
+    }
+
+    private static List<String> tokenize(InputTokenizer tokenizer, String input) throws ArgumentParseException {
+        List<String> tokens = new ArrayList<>();
+        tokenizer.tokenize(input, tokens::add);
+        return tokens;
+    }
+
+}
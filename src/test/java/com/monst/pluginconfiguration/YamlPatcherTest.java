@@ -0,0 +1,137 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link YamlPatcher} replaces exactly one value and keeps the rest of the document, and that it gives up
+ * on every value it cannot replace safely.
+ */
+class YamlPatcherTest {
+
+    @Test
+    void replacesScalarInNestedSection() throws InvalidConfigurationException {
+        String text = "# header\n" +
+                "limits:\n" +
+                "  players: 10\n" +
+                "  memory: 1024\n" +
+                "name: test\n";
+        String patched = YamlPatcher.patch(text, "limits.memory", 2048);
+        assertEquals("# header\n" +
+                "limits:\n" +
+                "  players: 10\n" +
+                "  memory: 2048\n" +
+                "name: test\n", patched);
+        assertEquals(2048, load(patched).get("limits.memory"));
+    }
+
+    @Test
+    void findsKeysOnlyInTheirOwnSection() {
+        String text = "section:\n" +
+                "  value: 1\n" +
+                "value: 2\n";
+        assertEquals("section:\n" +
+                "  value: 1\n" +
+                "value: 3\n", YamlPatcher.patch(text, "value", 3));
+        assertNull(YamlPatcher.patch(text, "section.missing", 3));
+        assertNull(YamlPatcher.patch(text, "missing.value", 3));
+    }
+
+    @Test
+    void replacesValuesOfQuotedKeys() {
+        String text = "'section':\n" +
+                "  \"value\": 1\n";
+        assertEquals("'section':\n" +
+                "  \"value\": 2\n", YamlPatcher.patch(text, "section.value", 2));
+    }
+
+    @Test
+    void keepsTrailingComments() {
+        assertEquals("value: 2 # the value\n", YamlPatcher.patch("value: 1 # the value\n", "value", 2));
+        assertEquals("value: other # a # b\n", YamlPatcher.patch("value: 'a # b' # a # b\n", "value", "other"));
+        assertEquals("value: 'a: b' # quoted\n", YamlPatcher.patch("value: \"x\" # quoted\n", "value", "a: b"));
+    }
+
+    @Test
+    void quotesValuesLikeBukkit() throws InvalidConfigurationException {
+        String patched = YamlPatcher.patch("value: no\n", "value", "yes");
+        assertEquals("yes", load(patched).get("value"));
+        patched = YamlPatcher.patch("value: 1\n", "value", "1");
+        assertEquals("1", load(patched).get("value"));
+    }
+
+    @Test
+    void replacesBlockSequenceAtKeyIndent() throws InvalidConfigurationException {
+        String text = "section:\n" +
+                "  list:\n" +
+                "  - a\n" +
+                "  # between\n" +
+                "  - b\n" +
+                "  next: 1\n";
+        String patched = YamlPatcher.patch(text, "section.list", Arrays.asList("x", "y", "z"));
+        assertEquals("section:\n" +
+                "  list:\n" +
+                "  - x\n" +
+                "  - y\n" +
+                "  - z\n" +
+                "  next: 1\n", patched);
+        assertEquals(Arrays.asList("x", "y", "z"), load(patched).getList("section.list"));
+        assertEquals(1, load(patched).get("section.next"));
+    }
+
+    @Test
+    void replacesIndentedBlockSequence() {
+        String text = "list:\n" +
+                "    - a\n" +
+                "    - b\n" +
+                "next: 1\n";
+        assertEquals("list:\n" +
+                "- c\n" +
+                "next: 1\n", YamlPatcher.patch(text, "list", Collections.singletonList("c")));
+    }
+
+    @Test
+    void replacesScalarWithSequence() {
+        assertEquals("list: # comment\n" +
+                "- a\n" +
+                "next: 1\n", YamlPatcher.patch("list: [] # comment\nnext: 1\n", "list", Collections.singletonList("a")));
+    }
+
+    @Test
+    void keepsLineSeparators() {
+        assertEquals("a: 1\r\nlist:\r\n- x\r\n- y\r\nb: 2\r\n",
+                YamlPatcher.patch("a: 1\r\nlist:\r\n- old\r\nb: 2\r\n", "list", Arrays.asList("x", "y")));
+    }
+
+    @Test
+    void fallsBackOnMultiLineValues() {
+        assertNull(YamlPatcher.patch("value: |\n  text\n", "value", "other"), "literal block scalar");
+        assertNull(YamlPatcher.patch("value: >\n  text\n", "value", "other"), "folded block scalar");
+        assertNull(YamlPatcher.patch("value: first\n  second\n", "value", "other"), "multi-line plain scalar");
+        assertNull(YamlPatcher.patch("value: 'first\n  second'\n", "value", "other"), "multi-line quoted scalar");
+        assertNull(YamlPatcher.patch("value: [1,\n  2]\n", "value", "other"), "multi-line flow sequence");
+        assertNull(YamlPatcher.patch("value: {a: 1,\n  b: 2}\n", "value", "other"), "multi-line flow mapping");
+    }
+
+    @Test
+    void fallsBackOnUnsupportedValues() {
+        assertNull(YamlPatcher.patch("value: &anchor 1\n", "value", 2), "anchor");
+        assertNull(YamlPatcher.patch("value: *anchor\n", "value", 2), "alias");
+        assertNull(YamlPatcher.patch("value: !!str 1\n", "value", 2), "tag");
+        assertNull(YamlPatcher.patch("value: 1\n", "value", null), "removal");
+        assertNull(YamlPatcher.patch("value: 1\n", "value", Collections.singletonMap("a", 1)), "section");
+    }
+
+    private static YamlConfiguration load(String text) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(text);
+        return config;
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.monst.pluginconfiguration;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link YamlSequenceReader} reads lists exactly as Bukkit loads them from the whole document, and that
+ * it refuses everything it cannot read that way.
+ */
+class YamlSequenceReaderTest {
+
+    @Test
+    void resolvesIntegersLikeBukkit() throws Exception {
+        List<Object> elements = assertStreamedLikeBukkit("list", "list: [0, 1, -2, +3, 0x1F, 0b101, 017, 1_000, "
+                + "2147483647, 2147483648, -2147483649, 9223372036854775807, 9223372036854775808]");
+        assertEquals(Arrays.asList(0, 1, -2, 3, 31, 5, 15, 1000, Integer.MAX_VALUE, 2147483648L, -2147483649L,
+                Long.MAX_VALUE, new BigInteger("9223372036854775808")), elements);
+    }
+
+    @Test
+    void resolvesFloatsLikeBukkit() throws Exception {
+        List<Object> elements = assertStreamedLikeBukkit("list",
+                "list: [1.5, -2.0, +0.25, 1_0.5, 1e3, .5, .inf, -.Inf, .NaN]");
+        assertEquals(Arrays.asList(1.5, -2.0, 0.25, 10.5, 1000.0, 0.5, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NaN), elements);
+    }
+
+    @Test
+    void resolvesBooleansLikeBukkit() throws Exception {
+        List<Object> elements = assertStreamedLikeBukkit("list",
+                "list: [true, False, yes, NO, on, Off]");
+        assertEquals(Arrays.asList(true, false, true, false, true, false), elements);
+    }
+
+    @Test
+    void resolvesStringsLikeBukkit() throws Exception {
+        List<Object> elements = assertStreamedLikeBukkit("list", "list:\n" +
+                "- plain text\n" +
+                "- '1'\n" +
+                "- \"yes\"\n" +
+                "- 'it''s'\n" +
+                "- y\n" +
+                "- 1.2.3\n");
+        assertEquals(Arrays.asList("plain text", "1", "yes", "it's", "y", "1.2.3"), elements);
+    }
+
+    @Test
+    void navigatesNestedSections() throws Exception {
+        String text = "before:\n" +
+                "  list: [skipped]\n" +
+                "  nested: {a: [1, 2], b: {c: 3}}\n" +
+                "section:\n" +
+                "  other: [4]\n" +
+                "  list:\n" +
+                "  - 5\n" +
+                "  - six\n" +
+                "  after: 7\n";
+        assertEquals(Arrays.asList(5, "six"), assertStreamedLikeBukkit("section.list", text));
+    }
+
+    @Test
+    void readsSingleScalarAsOnlyElement() throws Exception {
+        assertEquals(Collections.singletonList(42), read("value: 42\n", "value"));
+        assertEquals(Collections.singletonList("text"), read("value: text\n", "value"));
+    }
+
+    @Test
+    void readsEmptyList() throws Exception {
+        assertEquals(Collections.emptyList(), read("list: []\n", "list"));
+    }
+
+    @Test
+    void returnsNullIfMissing() throws Exception {
+        assertNull(read("other: [1]\n", "list"));
+        assertNull(read("section:\n  other: [1]\n", "section.list"));
+        assertNull(read("section: 1\n", "section.list"));
+        assertNull(read("", "list"));
+        assertNull(YamlSequenceReader.open(Files.createTempDirectory("yaml").resolve("missing.yml"), "list"));
+    }
+
+    @Test
+    void refusesUnstreamableElements() {
+        assertUnstreamable("list: [&a 1, *a]\n", "alias");
+        assertUnstreamable("list: [[1, 2]]\n", "nested sequence");
+        assertUnstreamable("list: [{a: 1}]\n", "nested mapping");
+        assertUnstreamable("list: [1, ~]\n", "null");
+        assertUnstreamable("list:\n- 1\n-\n", "empty element");
+        assertUnstreamable("list: [!!str 1]\n", "tagged element");
+        assertUnstreamable("list: [2001-12-14]\n", "timestamp");
+        assertUnstreamable("list: [1:30]\n", "sexagesimal integer");
+    }
+
+    @Test
+    void refusesUnstreamableLists() {
+        assertUnstreamable("list: !!seq [1]\n", "tagged list");
+        assertUnstreamable("base: &base [1]\nlist: *base\n", "aliased list");
+        assertUnstreamable("base: &base {list: [1]}\nsection:\n  <<: *base\n", "merge key", "section.list");
+        assertUnstreamable("base: &base {list: [1]}\nsection:\n  *base : 1\n", "aliased key", "section.list");
+    }
+
+    /**
+     * Asserts that a list is streamed exactly as Bukkit loads it, including the type of every element.
+     * @return the streamed elements
+     */
+    private static List<Object> assertStreamedLikeBukkit(String path, String text)
+            throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(text);
+        List<Object> streamed = read(text, path);
+        assertEquals(config.getList(path), streamed);
+        for (int i = 0; i < streamed.size(); i++)
+            assertEquals(config.getList(path).get(i).getClass(), streamed.get(i).getClass(), "type of element " + i);
+        return streamed;
+    }
+
+    private static void assertUnstreamable(String text, String message) {
+        assertUnstreamable(text, message, "list");
+    }
+
+    private static void assertUnstreamable(String text, String message, String path) {
+        assertThrows(YamlSequenceReader.UnstreamableException.class, () -> read(text, path), message);
+    }
+
+    /**
+     * Streams all elements under the path from a file with the provided contents.
+     * @return the elements, or null if the path does not exist
+     */
+    private static List<Object> read(String text, String path) throws IOException {
+        Path file = Files.createTempFile("config", ".yml");
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            try (YamlSequenceReader reader = YamlSequenceReader.open(file, path)) {
+                if (reader == null)
+                    return null;
+                List<Object> elements = new ArrayList<>();
+                reader.forEachRemaining(elements::add);
+                return elements;
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
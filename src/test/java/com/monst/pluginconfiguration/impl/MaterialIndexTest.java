@@ -0,0 +1,59 @@
+package com.monst.pluginconfiguration.impl;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link MaterialIndex#match(String)} finds exactly the same materials as
+ * {@link Material#matchMaterial(String)}.
+ */
+class MaterialIndexTest {
+
+    @Test
+    void matchesEveryMaterialLikeBukkit() {
+        for (Material material : Material.values()) {
+            String name = material.name();
+            String spaced = name.toLowerCase(Locale.ENGLISH).replace('_', ' ');
+            for (String input : new String[] { name, name.toLowerCase(Locale.ENGLISH), "minecraft:" + name, spaced,
+                    "minecraft:" + spaced, " " + spaced.replace(" ", " \t ") + " ", name.replace("_", "-_"),
+                    "MINECRAFT:" + name, name + "!", name + " " })
+                assertMatchesLikeBukkit(input);
+        }
+    }
+
+    @Test
+    void matchesSpecialInputsLikeBukkit() {
+        for (String input : new String[] { "", " ", "minecraft:", "minecraft: stone", "minecraft:minecraft:stone",
+                "st-o.n'e", "stone\n", "\u000Bstone\f", "Diamond  Sword", "diamond__sword", "diamond_ sword",
+                "legacy stone", "LEGACY_STONE", "stone\u00A0", "\u017Ftone", "d\u0130amond_sword", "stone\u0301" })
+            assertMatchesLikeBukkit(input);
+    }
+
+    @Test
+    void matchesRandomInputsLikeBukkit() {
+        Random random = new Random(42);
+        Material[] materials = Material.values();
+        String noise = " \t_-.:aZ0";
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder input = new StringBuilder(materials[random.nextInt(materials.length)].name());
+            for (int edits = random.nextInt(4); edits > 0; edits--) {
+                int at = random.nextInt(input.length() + 1);
+                if (random.nextBoolean() && at < input.length())
+                    input.setCharAt(at, Character.toLowerCase(input.charAt(at)));
+                else
+                    input.insert(at, noise.charAt(random.nextInt(noise.length())));
+            }
+            assertMatchesLikeBukkit(input.toString());
+        }
+    }
+
+    private static void assertMatchesLikeBukkit(String input) {
+        assertSame(Material.matchMaterial(input), MaterialIndex.match(input), () -> "match of \"" + input + "\"");
+    }
+
+}